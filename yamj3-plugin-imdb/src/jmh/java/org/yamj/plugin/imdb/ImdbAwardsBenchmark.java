@@ -0,0 +1,132 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.yamj.plugin.api.model.ICombined;
+import org.yamj.plugin.api.web.HTMLTools;
+
+/**
+ * Compares the streaming awards parser against the former extractTag based parsing.
+ *
+ * The recorded awards page is repeated to get pages of the size of popular titles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImdbAwardsBenchmark {
+
+    private static final String SECTION_START = "<div class=\"desc\">";
+    private static final String SECTION_END = "<div class=\"article\" id=\"see_also\">";
+
+    @Param({"1", "50"})
+    private int repeat;
+
+    private String page;
+    private ICombined combined;
+
+    @Setup
+    public void setUp() throws IOException {
+        final String recorded;
+        try (InputStream stream = getClass().getResourceAsStream("/imdb/awards-tt0111161.html"); Scanner scanner = new Scanner(stream, "UTF-8")) {
+            recorded = scanner.useDelimiter("\\A").next();
+        }
+
+        final int start = recorded.indexOf(SECTION_START);
+        final int end = recorded.indexOf(SECTION_END);
+        final StringBuilder sb = new StringBuilder(recorded.length() * repeat);
+        sb.append(recorded, 0, start);
+        for (int i = 0; i < repeat; i++) {
+            sb.append(recorded, start, end);
+        }
+        sb.append(recorded, end, recorded.length());
+        page = sb.toString();
+
+        combined = (ICombined) Proxy.newProxyInstance(ICombined.class.getClassLoader(), new Class<?>[]{ICombined.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return null;
+            }
+        });
+    }
+
+    @Benchmark
+    public int streamingParser() {
+        return ImdbAwardsParser.parse(page, combined);
+    }
+
+    @Benchmark
+    public void extractTagParser(Blackhole blackhole) {
+        List<String> awardBlocks = HTMLTools.extractTags(page, "<h1 class=\"header\">Awards</h1>", "<div class=\"article\"", "<h3>", "</table>", false);
+        for (String awardBlock : awardBlocks) {
+            String event = StringUtils.trimToEmpty(HTMLTools.extractTag(awardBlock, "<span class=\"award_category\">", "</span>"));
+
+            String tmpString = HTMLTools.extractTag(awardBlock, "<a href=", "</a>").trim();
+            tmpString = tmpString.substring(tmpString.indexOf('>') + 1).trim();
+            int year = NumberUtils.isNumber(tmpString) ? Integer.parseInt(tmpString) : -1;
+
+            boolean awardWon = true;
+            for (String outcomeBlock : HTMLTools.extractHtmlTags(awardBlock, "<table class=", null, "<tr>", "</tr>")) {
+                String outcome = HTMLTools.extractTag(outcomeBlock, "<b>", "</b>");
+                if (StringUtils.isNotBlank(outcome)) {
+                    awardWon = "won".equalsIgnoreCase(outcome);
+                }
+
+                String category = StringUtils.trimToEmpty(HTMLTools.extractTag(outcomeBlock, "<td class=\"award_description\">", "<br />"));
+                if (category.contains("href=\"/name/")) {
+                    category = StringUtils.trimToEmpty(HTMLTools.extractTag(outcomeBlock, "<span class=\"award_category\">", "</span>"));
+                }
+
+                combined.addAward(event, category, year, awardWon, !awardWon);
+            }
+            blackhole.consume(event);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ImdbAwardsBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares cache lookups with concatenated string keys against packed IMDb id keys.
+ *
+ * Run with <code>mvn -Pjmh test-compile</code> and start the main method with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImdbIdBenchmark {
+
+    private static final int ENTRIES = 10000;
+    private static final Locale LOCALE = Locale.GERMANY;
+
+    private String[] imdbIds;
+    private Map<String, Object> stringCache;
+    private Map<Long, Object> packedCache;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        imdbIds = new String[ENTRIES];
+        stringCache = new HashMap<>(ENTRIES * 2);
+        packedCache = new HashMap<>(ENTRIES * 2);
+        for (int i = 0; i < ENTRIES; i++) {
+            final String imdbId = String.format("tt%07d", random.nextInt(9999999));
+            imdbIds[i] = imdbId;
+            stringCache.put("person###" + imdbId + "###" + LOCALE.getLanguage(), imdbId);
+            packedCache.put(ImdbId.cacheKey(ImdbId.parse(imdbId), 1, LOCALE), imdbId);
+        }
+    }
+
+    private String nextId() {
+        index = (index + 1) % ENTRIES;
+        return imdbIds[index];
+    }
+
+    @Benchmark
+    public Object stringKeyLookup() {
+        return stringCache.get("person###" + nextId() + "###" + LOCALE.getLanguage());
+    }
+
+    @Benchmark
+    public Object packedKeyLookup() {
+        return packedCache.get(ImdbId.cacheKey(ImdbId.parse(nextId()), 1, LOCALE));
+    }
+
+    @Benchmark
+    public boolean validateId() {
+        return ImdbId.isValid(nextId());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ImdbIdBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import com.omertron.imdbapi.model.ImdbCast;
+import com.omertron.imdbapi.model.ImdbCredit;
+import com.omertron.imdbapi.model.ImdbPerson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.yamj.plugin.api.model.type.JobType;
+
+/**
+ * Measures the parsers for the IMDb pages and the full cast.
+ *
+ * The pages are trimmed to the markup read by the parsers. Run the main method
+ * to get the throughput together with the bytes allocated per operation (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImdbParserBenchmark {
+
+    private static final String[] CREDIT_TOKENS = {"cast", "directors", "writers", "producers", "cinematographers", "music_original", "sound_department"};
+
+    private String releaseInfoPage;
+    private String parentalGuidePage;
+    private String titlePage;
+    private List<ImdbCredit> fullCast;
+    private String[] countryNames;
+
+    @Setup
+    public void setUp() throws IOException {
+        releaseInfoPage = read("/imdb/releaseinfo-tt0133093.html");
+        parentalGuidePage = read("/imdb/parentalguide-tt0133093.html");
+        titlePage = read("/imdb/title-tt0211915.html");
+        countryNames = new String[]{"Deutschland", "Germany", "West Germany"};
+
+        // a full cast of a big production
+        fullCast = new ArrayList<>();
+        int personNumber = 1;
+        for (int i = 0; i < CREDIT_TOKENS.length; i++) {
+            final List<ImdbCast> credits = new ArrayList<>();
+            final int count = i == 0 ? 120 : 8 * i;
+            for (int j = 0; j < count; j++) {
+                ImdbPerson person = new ImdbPerson();
+                person.setActorId(String.format("nm%07d", personNumber++));
+                person.setName("Person " + personNumber);
+                ImdbCast cast = new ImdbCast();
+                cast.setPerson(person);
+                cast.setCharacter(i == 0 ? "Character " + j : null);
+                cast.setAttr(j % 10 == 9 ? "(uncredited)" : null);
+                credits.add(cast);
+            }
+            ImdbCredit credit = new ImdbCredit();
+            credit.setToken(CREDIT_TOKENS[i]);
+            credit.setCredits(credits);
+            fullCast.add(credit);
+        }
+    }
+
+    static String read(String resource) throws IOException {
+        try (InputStream stream = ImdbParserBenchmark.class.getResourceAsStream(resource); Scanner scanner = new Scanner(stream, "UTF-8")) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+
+    @Benchmark
+    public ImdbAkaIndex akaIndex() {
+        return ImdbAkaIndex.parse(releaseInfoPage);
+    }
+
+    @Benchmark
+    public String certifications() {
+        return ImdbCertifications.parse(parentalGuidePage).getCertificate(countryNames);
+    }
+
+    @Benchmark
+    public String originalTitle() {
+        return AbstractImdbScanner.parseOriginalTitle(titlePage);
+    }
+
+    @Benchmark
+    public void castCrew(Blackhole blackhole) {
+        final ImdbCastCrew castCrew = ImdbCastCrew.of(fullCast);
+        for (JobType jobType : JobType.values()) {
+            for (int i = castCrew.start(jobType); i < castCrew.end(jobType); i++) {
+                blackhole.consume(castCrew.getName(i));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ImdbParserBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
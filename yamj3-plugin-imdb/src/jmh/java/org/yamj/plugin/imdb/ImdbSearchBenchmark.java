@@ -0,0 +1,97 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.yamj.api.common.http.HttpClientWrapper;
+import org.yamj.plugin.api.service.mock.PluginConfigServiceMock;
+import org.yamj.plugin.api.service.mock.PluginLocaleServiceMock;
+
+/**
+ * Measures the scanning of IMDb search results.
+ *
+ * The HTTP client is stubbed to answer every request with the search result page, so only
+ * the request building and the result scanning are measured. Caches and throttling are disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImdbSearchBenchmark {
+
+    private ImdbSearchEngine searchEngine;
+
+    @Setup
+    public void setUp() throws IOException {
+        final String page = ImdbParserBenchmark.read("/imdb/find-the-matrix.html");
+        final HttpClient stub = (HttpClient) Proxy.newProxyInstance(HttpClient.class.getClassLoader(), new Class<?>[]{HttpClient.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (!"execute".equals(method.getName())) {
+                    return null;
+                }
+                BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                response.setEntity(new StringEntity(page, ContentType.TEXT_HTML));
+                return response;
+            }
+        });
+
+        final File directory = new File(System.getProperty("java.io.tmpdir"));
+        searchEngine = new ImdbSearchEngine(new PluginConfigServiceMock(), new PluginLocaleServiceMock(Locale.US), new HttpClientWrapper(stub),
+                        new ImdbSearchCache(new File(directory, "imdb-benchmark.cache"), 0, 0, 0),
+                        new ImdbDatasetIndex(directory, directory),
+                        new ImdbRateGovernor());
+    }
+
+    @Benchmark
+    public String titleSearch() {
+        return searchEngine.getImdbId("The Matrix", 1999, false, false);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ImdbSearchBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -25,17 +25,16 @@ package org.yamj.plugin.imdb;
 import static org.yamj.plugin.api.Constants.SOURCE_IMDB;
 import static org.yamj.plugin.api.metadata.MetadataTools.isOriginalTitleScannable;
 
-import com.omertron.imdbapi.model.ImdbCast;
-import com.omertron.imdbapi.model.ImdbCredit;
-import com.omertron.imdbapi.model.ImdbPerson;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.*;
-import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.collections.MapUtils;
+import java.util.concurrent.*;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamj.plugin.api.NeedsConfigService;
 import org.yamj.plugin.api.NeedsLocaleService;
+import org.yamj.plugin.api.PluginExtensionException;
 import org.yamj.plugin.api.metadata.NfoScanner;
 import org.yamj.plugin.api.model.*;
 import org.yamj.plugin.api.model.type.JobType;
@@ -151,11 +150,11 @@ public abstract class AbstractImdbScanner implements NfoScanner, NeedsConfigServ
     }
 
     protected static boolean isValidImdbId(String imdbId) {
-        return StringUtils.isNotBlank(imdbId);
+        return ImdbId.isValid(imdbId);
     }
 
     protected static boolean isNoValidImdbId(String imdbId) {
-        return StringUtils.isBlank(imdbId);
+        return !ImdbId.isValid(imdbId);
     }
     
     protected static String parseOriginalTitle(String xml) {
@@ -165,153 +164,143 @@ public abstract class AbstractImdbScanner implements NfoScanner, NeedsConfigServ
             .trim();
      }
 
-    protected void parseCastCrew(ICredits credits, String imdbId) {
-        List<ImdbCredit> fullCast = imdbApiWrapper.getFullCast(imdbId);
+    /**
+     * Create a request for the given callable.
+     * 
+     * If parallel requests are enabled, the request will be executed by the plugin executor;
+     * else the request will be executed in the calling thread while awaiting the result.
+     * 
+     * @param callable the callable to execute
+     * @return the request
+     */
+    protected final <T> RunnableFuture<T> request(Callable<T> callable) {
+        final FutureTask<T> request = new FutureTask<>(callable);
+        if (configService.getBooleanProperty("imdb.parallel.requests", false)) {
+            try {
+                ImdbPlugin.getExecutorService().execute(request);
+            } catch (RejectedExecutionException ex) { //NOSONAR
+                LOG.trace("Request rejected; will be executed while awaited", ex);
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Await the result of a request.
+     * 
+     * A request which has not been started by now, will be executed in the calling thread.
+     * 
+     * @param request the request
+     * @return the result of the request
+     * @throws IOException if the request failed with an IO exception
+     */
+    protected static <T> T await(RunnableFuture<T> request) throws IOException {
+        // no-op if request already executed
+        request.run();
         
-        if (CollectionUtils.isEmpty(fullCast)) {
+        try {
+            return request.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("IMDb request has been interrupted");
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PluginExtensionException("IMDb request failed", cause);
+        }
+    }
+
+    /**
+     * Cancel requests which are not needed anymore.
+     * 
+     * @param requests the requests to cancel
+     */
+    protected static void cancel(Future<?>... requests) {
+        for (Future<?> request : requests) {
+            if (request != null) {
+                request.cancel(false);
+            }
+        }
+    }
+
+    protected void parseCastCrew(ICredits credits, String imdbId) {
+        parseCastCrew(credits, imdbId, imdbApiWrapper.getCastCrew(imdbId));
+    }
+
+    protected void parseCastCrew(ICredits credits, String imdbId, ImdbCastCrew castCrew) {
+        if (castCrew == null || castCrew.isEmpty()) {
             LOG.info("No cast for imdb ID: {}", imdbId);
             return;
         }
 
-        // build jobs map
-        EnumMap<JobType,List<ImdbCast>> jobs = getJobs(fullCast);
         // get configuration parameters
         boolean skipFaceless = configService.getBooleanProperty("imdb.castcrew.skip.faceless", false);
         boolean skipUncredited = configService.getBooleanProperty("imdb.castcrew.skip.uncredited", true);
         
         // add credits
-        addCredits(credits, JobType.DIRECTOR, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.WRITER, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.ACTOR, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.PRODUCER, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.CAMERA, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.EDITING, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.ART, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.SOUND, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.EFFECTS, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.LIGHTING, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.COSTUME_MAKEUP, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.CREW, jobs, skipUncredited, skipFaceless);
-        addCredits(credits, JobType.UNKNOWN, jobs, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.DIRECTOR, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.WRITER, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.ACTOR, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.PRODUCER, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.CAMERA, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.EDITING, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.ART, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.SOUND, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.EFFECTS, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.LIGHTING, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.COSTUME_MAKEUP, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.CREW, castCrew, skipUncredited, skipFaceless);
+        addCredits(credits, JobType.UNKNOWN, castCrew, skipUncredited, skipFaceless);
     }
 
-    private static EnumMap<JobType,List<ImdbCast>>  getJobs(List<ImdbCredit> credits) {
-        EnumMap<JobType,List<ImdbCast>> result = new EnumMap<>(JobType.class);
-        
-        for (ImdbCredit credit : credits) {
-            if (CollectionUtils.isEmpty(credit.getCredits())) {
-                continue;
-            }
-            
-            switch (credit.getToken()) {
-                case "cast":
-                    fillJobs(result, JobType.ACTOR, credit);
-                    break;
-                case "writers":
-                    fillJobs(result, JobType.WRITER, credit);
-                    break;
-                case "directors":
-                    fillJobs(result, JobType.DIRECTOR, credit);
-                    break;
-                case "cinematographers":
-                    fillJobs(result, JobType.CAMERA, credit);
-                    break;
-                case "editors":
-                    fillJobs(result, JobType.EDITING, credit);
-                    break;
-                case "producers":
-                case "casting_directors":
-                    fillJobs(result, JobType.PRODUCER, credit);
-                    break;
-                case "music_original":
-                    fillJobs(result, JobType.SOUND, credit);
-                    break;
-                case "production_designers":
-                case "art_directors":
-                case "set_decorators":
-                    fillJobs(result, JobType.ART, credit);
-                    break;
-                case "costume_designers":
-                    fillJobs(result, JobType.COSTUME_MAKEUP, credit);
-                    break;
-                case "assistant_directors":
-                case "production_managers":
-                case "art_department":
-                case "sound_department":
-                case "special_effects_department":
-                case "visual_effects_department":
-                case "stunts":
-                case "camera_department":
-                case "animation_department":
-                case "casting_department":
-                case "costume_department":
-                case "editorial_department":
-                case "music_department":
-                case "transportation_department":
-                case "make_up_department":
-                case "miscellaneous":
-                    fillJobs(result, JobType.CREW, credit);
-                    break;
-                default:
-                    fillJobs(result, JobType.UNKNOWN, credit);
-                    break;
-            }
-        }
-        
-        return result;
-    }
-    
-    public static void fillJobs(EnumMap<JobType,List<ImdbCast>> jobs, JobType jobType, ImdbCredit credit) {
-        if (jobs.containsKey(jobType)) {
-            jobs.get(jobType).addAll(credit.getCredits());
-        } else {
-            jobs.put(jobType, credit.getCredits());
-        }
-    }
-    
-    private void addCredits(ICredits credits, JobType jobType, EnumMap<JobType,List<ImdbCast>> jobs, boolean skipUncredited, boolean skipFaceless) {
-        if (CollectionUtils.isEmpty(jobs.get(jobType))) {
+    private void addCredits(ICredits credits, JobType jobType, ImdbCastCrew castCrew, boolean skipUncredited, boolean skipFaceless) {
+        final int start = castCrew.start(jobType);
+        final int end = castCrew.end(jobType);
+        if (start == end) {
             return;
         }
         if (!this.configService.isCastScanEnabled(jobType)) {
             return;
         }
             
-        for (ImdbCast cast : jobs.get(jobType)) {
-            final ImdbPerson person = cast.getPerson();
-            if (person == null || StringUtils.isBlank(person.getName())) {
+        for (int i = start; i < end; i++) {
+            if (castCrew.getName(i) == null) {
                 continue; //NOSONAR
             }
             
-            if (skipUncredited && StringUtils.contains(cast.getAttr(), "(uncredited")) {
+            if (skipUncredited && castCrew.isUncredited(i)) {
                 continue; //NOSONAR
             }
 
-            final String photoURL = (person.getImage() == null) ? null : person.getImage().getUrl();
-            if (skipFaceless && JobType.ACTOR.equals(jobType) && StringUtils.isEmpty(photoURL)) {
+            if (skipFaceless && JobType.ACTOR.equals(jobType) && castCrew.isFaceless(i)) {
                 // skip faceless actors only
                 continue; //NOSONAR
             }
 
-            credits.addCredit(person.getActorId(), jobType,  person.getName(), cast.getCharacter());
+            credits.addCredit(castCrew.getPersonId(i), jobType, castCrew.getName(i), castCrew.getCharacter(i));
         }
     }
 
     protected void parseReleasedTitles(ICombined combined, String imdbId, Locale locale) {
-        // get the AKS
-        Map<String, String> akas = getAkaMap(imdbId);
-        if (MapUtils.isEmpty(akas)) {
+        parseReleasedTitles(combined, locale, imdbApiWrapper.getAkaIndex(imdbId));
+    }
+    
+    protected void parseReleasedTitles(ICombined combined, Locale locale, ImdbAkaIndex akaIndex) {
+        if (akaIndex == null || akaIndex.isEmpty()) {
             return;
         }
         
         // ORIGINAL TITLE
-
-        // get the AKAs from release info XML
-        for (Map.Entry<String, String> aka : akas.entrySet()) {
-            if (StringUtils.indexOfIgnoreCase(aka.getKey(), "original title") > 0) {
-                combined.setOriginalTitle(aka.getValue().trim());
-                break;
-            }
+        if (akaIndex.getOriginalTitle() != null) {
+            combined.setOriginalTitle(akaIndex.getOriginalTitle());
         }
 
         // TITLE for preferred country from AKAS
@@ -331,20 +320,9 @@ public abstract class AbstractImdbScanner implements NfoScanner, NeedsConfigServ
         String foundValue = null;
         // NOTE: First matching country is the preferred country
         outerLoop: for (String matchCountry : akaMatchingCountries) {
-            innerLoop: for (Map.Entry<String, String> aka : akas.entrySet()) {
-                int startIndex = aka.getKey().indexOf(matchCountry);
-                if (startIndex < 0) {
-                    continue innerLoop;
-                }
-
-                String extracted = aka.getKey().substring(startIndex);
-                int endIndex = extracted.indexOf('/');
-                if (endIndex > -1) {
-                    extracted = extracted.substring(0, endIndex);
-                }
-
-                if (isNotIgnored(extracted, akaIgnoreVersions)) {
-                    foundValue = aka.getValue().trim();
+            for (ImdbAkaIndex.Aka aka : akaIndex.getAkas(matchCountry)) {
+                if (isNotIgnored(aka.getVersion(), akaIgnoreVersions)) {
+                    foundValue = aka.getTitle();
                     break outerLoop;
                 }
             }
@@ -360,36 +338,4 @@ public abstract class AbstractImdbScanner implements NfoScanner, NeedsConfigServ
         }
         return true;
     }
-    
-    private Map<String, String> getAkaMap(String imdbId) {
-        String releaseInfoXML = imdbApiWrapper.getReleasInfoXML(imdbId);
-        if (releaseInfoXML != null) {
-            // Just extract the AKA section from the page
-            List<String> akaList = HTMLTools.extractTags(releaseInfoXML, "<a id=\"akas\" name=\"akas\">", HTML_TABLE_END, "<td>", HTML_TD_END, false);
-            return buildAkaMap(akaList);
-        }
-        return null;
-    }
-
-    /**
-     * Create a map of the AKA values
-     *
-     * @param list
-     * @return
-     */
-    private static Map<String, String> buildAkaMap(List<String> list) {
-        Map<String, String> map = new LinkedHashMap<>();
-        int i = 0;
-        do {
-            try {
-                String key = list.get(i++);
-                String value = list.get(i++);
-                map.put(key, value);
-            } catch (Exception ignore) { //NOSONAR
-                i = -1;
-            }
-        } while (i != -1);
-        return map;
-    }
 }
-
@@ -0,0 +1,136 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.util.*;
+import org.apache.commons.lang3.StringUtils;
+import org.yamj.plugin.api.web.HTMLTools;
+
+/**
+ * Parsed AKA titles of a title.
+ *
+ * The AKA titles are indexed by country, so that a title for a country is found by one hash
+ * lookup. The original title is determined while parsing.
+ */
+public final class ImdbAkaIndex {
+
+    public static final ImdbAkaIndex EMPTY = new ImdbAkaIndex(null, Collections.<String, List<Aka>>emptyMap());
+
+    private final String originalTitle;
+    private final Map<String, List<Aka>> akasByCountry;
+
+    private ImdbAkaIndex(String originalTitle, Map<String, List<Aka>> akasByCountry) {
+        this.originalTitle = originalTitle;
+        this.akasByCountry = akasByCountry;
+    }
+
+    /**
+     * Parse the AKA section of the release info page.
+     *
+     * @param releaseInfoXML the release info page
+     * @return the index, never null
+     */
+    public static ImdbAkaIndex parse(String releaseInfoXML) {
+        if (releaseInfoXML == null) {
+            return EMPTY;
+        }
+        
+        // the AKA section is a table of pairs of country and title
+        final List<String> cells = HTMLTools.extractTags(releaseInfoXML, "<a id=\"akas\" name=\"akas\">", "</table>", "<td>", "</td>", false);
+        String originalTitle = null;
+        final Map<String, List<Aka>> akasByCountry = new HashMap<>();
+        for (int i = 0; i + 1 < cells.size(); i += 2) {
+            final String key = cells.get(i);
+            final String title = cells.get(i + 1).trim();
+
+            if (originalTitle == null && StringUtils.indexOfIgnoreCase(key, "original title") > 0) {
+                originalTitle = title;
+            }
+
+            // a key may list several countries, each with own version attributes
+            for (String part : StringUtils.split(key, '/')) {
+                final String version = part.trim();
+                final int attrIndex = version.indexOf('(');
+                final String country = (attrIndex < 0 ? version : version.substring(0, attrIndex)).trim();
+                if (country.isEmpty()) {
+                    continue;
+                }
+                
+                List<Aka> akas = akasByCountry.get(country);
+                if (akas == null) {
+                    akas = new ArrayList<>(1);
+                    akasByCountry.put(country, akas);
+                }
+                akas.add(new Aka(title, version));
+            }
+        }
+        
+        if (originalTitle == null && akasByCountry.isEmpty()) {
+            return EMPTY;
+        }
+        return new ImdbAkaIndex(originalTitle, akasByCountry);
+    }
+
+    public boolean isEmpty() {
+        return originalTitle == null && akasByCountry.isEmpty();
+    }
+
+    public String getOriginalTitle() {
+        return originalTitle;
+    }
+
+    /**
+     * Get the AKA titles of a country in page order.
+     *
+     * @param country the country name as used by IMDb
+     * @return the AKA titles, never null
+     */
+    public List<Aka> getAkas(String country) {
+        final List<Aka> akas = akasByCountry.get(country);
+        return akas == null ? Collections.<Aka>emptyList() : akas;
+    }
+
+    public static final class Aka {
+
+        private final String title;
+        private final String version;
+
+        public Aka(String title, String version) {
+            this.title = title;
+            this.version = version;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * Get the country with the version attributes, i.e. "USA (working title)".
+         *
+         * @return the version
+         */
+        public String getVersion() {
+            return version;
+        }
+    }
+}
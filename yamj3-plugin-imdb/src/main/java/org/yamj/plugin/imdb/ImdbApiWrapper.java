@@ -27,16 +27,15 @@ import static org.yamj.api.common.tools.ResponseTools.isOK;
 import static org.yamj.api.common.tools.ResponseTools.isTemporaryError;
 import static org.yamj.plugin.api.Constants.SOURCE_IMDB;
 import static org.yamj.plugin.api.Constants.UTF8;
-import static org.yamj.plugin.api.metadata.MetadataTools.parseToDate;
 
 import com.omertron.imdbapi.ImdbApi;
 import com.omertron.imdbapi.ImdbException;
 import com.omertron.imdbapi.model.*;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 import net.sf.ehcache.Cache;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamj.api.common.http.CommonHttpClient;
@@ -45,9 +44,9 @@ import org.yamj.plugin.api.PluginExtensionException;
 import org.yamj.plugin.api.model.ICombined;
 import org.yamj.plugin.api.service.PluginConfigService;
 import org.yamj.plugin.api.service.PluginLocaleService;
-import org.yamj.plugin.api.tools.EhCacheWrapper;
 import org.yamj.plugin.api.web.HTMLTools;
 import org.yamj.plugin.api.web.TemporaryUnavailableException;
+import org.yamj.plugin.imdb.ImdbRateGovernor.Endpoint;
 
 public class ImdbApiWrapper {
     
@@ -57,22 +56,55 @@ public class ImdbApiWrapper {
     private static final String HTML_TITLE = "title/";
     private static final String HTML_A_END = "</a>";
     private static final String HTML_A_START = "<a ";
-    private static final String HTML_H5_END = ":</h5>";
-    private static final String HTML_H5_START = "<h5>";
     private static final String HTML_DIV_END = "</div>";
+    // language-invariant core entries which are shared by all locales
+    private static final int CACHE_PERSON = 1;
+    private static final int CACHE_TITLE_ARTWORK = 2;
+    private static final int CACHE_EPISODES = 3;
+    private static final int CACHE_CAST_CREW = 4;
+    private static final int CACHE_PERSON_BIO = 6;
+    private static final int CACHE_AKAS = 7;
+    private static final int CACHE_TRAILER = 9;
+    private static final int CACHE_CERTIFICATIONS = 10;
+    private static final int CACHE_STUDIOS = 11;
+    // per-language overlay entries with localized titles and texts
+    private static final int CACHE_FILMOGRAPHY = 5;
+    private static final int CACHE_MOVIE_DETAILS = 8;
+    private static final int CACHE_PERSON_TEXT = 12;
+    private static final long EPISODES_REFRESH_MILLIS = 1800000L;
+    private static final int EPISODES_KEEP_SECONDS = 4 * 3600;
+    // only the header and the countries are needed from the title page
+    private static final ImdbPageFragments TITLE_FRAGMENTS = new ImdbPageFragments(
+                    "<h1 class=\"header\">", "</h1>",
+                    "Country:</h4>", HTML_DIV_END);
 
     private final ImdbApi imdbApi;
     private final PluginConfigService configService;
     private final PluginLocaleService localeService;
     private final CommonHttpClient httpClient;
-    private final EhCacheWrapper cache;
+    private final ImdbCacheWrapper cache;
+    private final ImdbPageStore pageStore;
+    private final ImdbTop250Index top250Index;
+    private final ImdbDatasetIndex datasetIndex;
+    private final ImdbRateGovernor rateGovernor;
+    private final ConcurrentMap<Long, FutureTask<?>> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Locale, Map<String, String[]>> certificationCountries = new ConcurrentHashMap<>();
+    private final ImdbStudioDictionary studioDictionary = new ImdbStudioDictionary();
     
-    public ImdbApiWrapper(ImdbApi imdbApi, PluginConfigService configService, PluginLocaleService localeService, CommonHttpClient httpClient, Cache cache) {
+    public ImdbApiWrapper(ImdbApi imdbApi, PluginConfigService configService, PluginLocaleService localeService, CommonHttpClient httpClient, Cache cache,
+                    ImdbPageStore pageStore, ImdbTop250Index top250Index, ImdbDatasetIndex datasetIndex, ImdbRateGovernor rateGovernor) {
         this.imdbApi = imdbApi;
         this.configService = configService;
         this.localeService = localeService;
         this.httpClient = httpClient;
-        this.cache = new EhCacheWrapper(cache);
+        this.cache = new ImdbCacheWrapper(cache);
+        this.pageStore = pageStore;
+        this.top250Index = top250Index;
+        this.datasetIndex = datasetIndex;
+        this.rateGovernor = rateGovernor;
+        
+        // resolve the certification countries of the default locale once
+        getCertificationCountries(localeService.getLocale());
     }
     
     private static String getImdbUrl(String imdbId) {
@@ -87,11 +119,21 @@ public class ImdbApiWrapper {
         return url;
     }
 
-    public ImdbMovieDetails getMovieDetails(String imdbId, Locale locale, boolean throwTempError) {
+    public ImdbMovieDetails getMovieDetails(final String imdbId, final Locale locale, boolean throwTempError) {
         ImdbMovieDetails movieDetails = null;
         try {
-            movieDetails = imdbApi.getFullDetails(imdbId, locale);
+            final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_MOVIE_DETAILS, locale);
+            movieDetails = getCoalesced(cacheKey, ImdbMovieDetails.class, new Loader<ImdbMovieDetails, ImdbException>() {
+                @Override
+                public ImdbMovieDetails load() throws ImdbException {
+                    rateGovernor.acquire(Endpoint.APP_API);
+                    final ImdbMovieDetails details = imdbApi.getFullDetails(imdbId, locale);
+                    storeTrailer(imdbId, details);
+                    return details;
+                }
+            });
         } catch (ImdbException ex) {
+            rateGovernor.update(Endpoint.APP_API, ex.getResponseCode());
             checkTempError(throwTempError, ex);
             LOG.error("Failed to get movie details using IMDb ID {}: {}", imdbId, ex.getMessage());
             LOG.trace(API_ERROR, ex);
@@ -99,46 +141,81 @@ public class ImdbApiWrapper {
         return movieDetails;
     }
         
-    public String getMovieDetailsXML(final String imdbId, boolean throwTempError) throws IOException {
-        try {
-            final String cacheKey = "moviexml###+imdbId";
-            String result = cache.get(cacheKey, String.class);
-            if (StringUtils.isBlank(result)) {
-                DigestedResponse response = httpClient.requestContent(getImdbUrl(imdbId), UTF8);
-                checkTempError(throwTempError, response);
-                result = response.getContent();
-                cache.store(cacheKey, result);
-            }
-            return result;
-        } catch (RuntimeException | IOException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            throw new PluginExtensionException("IMDb request failed", ex);
+    /**
+     * Get the trailer of a title.
+     * 
+     * The trailer doesn't depend on the locale, so the trailer of movie details loaded with any
+     * locale will be used. If the title has no trailer, the movie details are looked up again.
+     * 
+     * @param imdbId the IMDb id
+     * @return the trailer, may be null
+     */
+    public ImdbTrailer getTrailer(String imdbId) {
+        final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_TRAILER, null);
+        final ImdbTrailer trailer = cache.get(cacheKey, ImdbTrailer.class);
+        if (trailer != null) {
+            return trailer;
         }
+        
+        final ImdbMovieDetails movieDetails = getMovieDetails(imdbId, Locale.US, false);
+        return movieDetails == null ? null : movieDetails.getTrailer();
+    }
+
+    private void storeTrailer(String imdbId, ImdbMovieDetails movieDetails) {
+        if (movieDetails == null || StringUtils.isBlank(movieDetails.getImdbId())) {
+            return;
+        }
+        cache.store(ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_TRAILER, null), movieDetails.getTrailer());
+    }
+
+    public String getMovieDetailsXML(final String imdbId, boolean throwTempError) throws IOException {
+        DigestedResponse response = pageStore.getPage(imdbId, getImdbUrl(imdbId), TITLE_FRAGMENTS);
+        checkTempError(throwTempError, response);
+        return response.getContent();
     }
     
-    public List<ImdbCredit> getFullCast(String imdbId) {
-        List<ImdbCredit> fullCast = null;
-        try {
-            // use US locale to check for uncredited cast
-            fullCast = imdbApi.getFullCast(imdbId, Locale.US);
-        } catch (ImdbException ex) {
-            LOG.error("Failed to get full cast using IMDb ID {}: {}", imdbId, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
+    public ImdbCastCrew getCastCrew(String imdbId) {
+        // use US locale to check for uncredited cast
+        final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_CAST_CREW, null);
+        ImdbCastCrew castCrew = cache.get(cacheKey, ImdbCastCrew.class);
+        if (castCrew == null) {
+            try {
+                rateGovernor.acquire(Endpoint.APP_API);
+                castCrew = ImdbCastCrew.of(imdbApi.getFullCast(imdbId, Locale.US));
+                cache.store(cacheKey, castCrew);
+            } catch (ImdbException ex) {
+                rateGovernor.update(Endpoint.APP_API, ex.getResponseCode());
+                LOG.error("Failed to get full cast using IMDb ID {}: {}", imdbId, ex.getMessage());
+                LOG.trace(API_ERROR, ex);
+            }
         }
-        return fullCast;
+        return castCrew;
     }
 
-    public ImdbPerson getPerson(String imdbId, Locale locale, boolean throwTempError) {
+    /**
+     * Get the details of a person.
+     * 
+     * Names, birth and death data don't depend on the language, so the details are shared
+     * by all locales. The biography of the details is the one of the locale which loaded
+     * them; use {@link #getPersonApiBiography} for the localized biography.
+     * 
+     * @param imdbId the IMDb id
+     * @param locale the locale used if the details must be requested
+     * @param throwTempError true to throw an exception if the service is temporary unavailable
+     * @return the person, may be null
+     */
+    public ImdbPerson getPerson(final String imdbId, final Locale locale, boolean throwTempError) {
         ImdbPerson imdbPerson = null;
         try {
-            final String cacheKey = "person###"+imdbId+"###"+locale.getLanguage();
-            imdbPerson = cache.get(cacheKey, ImdbPerson.class);
-            if (imdbPerson == null) {
-                imdbPerson = imdbApi.getActorDetails(imdbId, locale);
-                cache.store(cacheKey, imdbPerson);
-            }
+            final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_PERSON, null);
+            imdbPerson = getCoalesced(cacheKey, ImdbPerson.class, new Loader<ImdbPerson, ImdbException>() {
+                @Override
+                public ImdbPerson load() throws ImdbException {
+                    return loadPerson(imdbId, locale);
+                }
+            });
         } catch (ImdbException ex) {
+            rateGovernor.update(Endpoint.APP_API, ex.getResponseCode());
             checkTempError(throwTempError, ex);
             LOG.error("Failed to get person details using IMDb ID {}: {}", imdbId, ex.getMessage());
             LOG.trace(API_ERROR, ex);
@@ -146,107 +223,200 @@ public class ImdbApiWrapper {
         return imdbPerson;
     }
 
-    public List<ImdbFilmography> getFilmopgraphy(String imdbId, Locale locale, boolean throwTempError) {
-        List<ImdbFilmography> imdbFilmography = null;
+    /**
+     * Get the biography of a person from the API.
+     * 
+     * The biography is the only localized text of the person details, so it's cached per
+     * locale apart from the shared details.
+     * 
+     * @param imdbId the IMDb id
+     * @param locale the locale
+     * @param throwTempError true to throw an exception if the service is temporary unavailable
+     * @return the biography or an empty string if there is none; null if the request failed
+     */
+    public String getPersonApiBiography(final String imdbId, final Locale locale, boolean throwTempError) {
         try {
-            imdbFilmography = imdbApi.getActorFilmography(imdbId, locale);
+            final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_PERSON_TEXT, locale);
+            return getCoalesced(cacheKey, String.class, new Loader<String, ImdbException>() {
+                @Override
+                public String load() throws ImdbException {
+                    final ImdbPerson imdbPerson = loadPerson(imdbId, locale);
+                    return imdbPerson == null ? null : StringUtils.trimToEmpty(imdbPerson.getBiography());
+                }
+            });
         } catch (ImdbException ex) {
+            rateGovernor.update(Endpoint.APP_API, ex.getResponseCode());
             checkTempError(throwTempError, ex);
-            LOG.error("Failed to get filmography using IMDb ID {}: {}", imdbId, ex.getMessage());
+            LOG.error("Failed to get person biography using IMDb ID {}: {}", imdbId, ex.getMessage());
             LOG.trace(API_ERROR, ex);
         }
-        return imdbFilmography;
+        return null;
+    }
+
+    private ImdbPerson loadPerson(String imdbId, Locale locale) throws ImdbException {
+        rateGovernor.acquire(Endpoint.APP_API);
+        final ImdbPerson imdbPerson = imdbApi.getActorDetails(imdbId, locale);
+        if (imdbPerson != null) {
+            // keep the biography of the requested locale
+            cache.store(ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_PERSON_TEXT, locale), StringUtils.trimToEmpty(imdbPerson.getBiography()));
+        }
+        return imdbPerson;
     }
 
     @SuppressWarnings("unchecked")
-	public Map<String,Integer> getTop250(Locale locale, boolean throwTempError) {
+    public List<ImdbFilmography> getFilmopgraphy(final String imdbId, final Locale locale, boolean throwTempError) {
+        List<ImdbFilmography> imdbFilmography = null;
         try {
-            final String cacheKey = "top250###"+locale.getLanguage();
-            HashMap<String,Integer> result = cache.get(cacheKey, HashMap.class);
-            if (result == null) {
-                result = new HashMap<>();
-                int rank = 0;
-                for (ImdbList imdbList : imdbApi.getTop250(locale)) {
-                    rank++;
-                    if (StringUtils.isNotBlank(imdbList.getImdbId())) {
-                        result.put(imdbList.getImdbId(), Integer.valueOf(rank));
-                    }
+            final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_FILMOGRAPHY, locale);
+            imdbFilmography = getCoalesced(cacheKey, List.class, new Loader<List<ImdbFilmography>, ImdbException>() {
+                @Override
+                public List<ImdbFilmography> load() throws ImdbException {
+                    rateGovernor.acquire(Endpoint.APP_API);
+                    return imdbApi.getActorFilmography(imdbId, locale);
                 }
-                cache.store(cacheKey, result);
-            }
-            return result;
+            });
         } catch (ImdbException ex) {
+            rateGovernor.update(Endpoint.APP_API, ex.getResponseCode());
             checkTempError(throwTempError, ex);
-            LOG.error("Failed to get Top250: {}", ex.getMessage());
+            LOG.error("Failed to get filmography using IMDb ID {}: {}", imdbId, ex.getMessage());
             LOG.trace(API_ERROR, ex);
-            return null;
         }
+        return imdbFilmography;
+    }
+
+    /**
+     * Get the Top 250 rank of a movie; never blocks on a refresh of the Top 250.
+     * 
+     * @param imdbId the IMDb id of the movie
+     * @return the rank or -1 if not ranked
+     */
+    public int getTop250Rank(String imdbId) {
+        return top250Index.getRank(imdbId);
     }
     
-    @SuppressWarnings("unchecked")
-	public List<ImdbImage> getTitlePhotos(String imdbId, Locale locale) {
-        List<ImdbImage> titlePhotos = null;
+    /**
+     * Get the posters and fanarts of a title, classified out of the title photos.
+     * 
+     * The photos don't depend on the language, so the artwork is shared by all locales.
+     * 
+     * @param imdbId the IMDb id
+     * @param locale the locale used if the photos must be requested
+     * @return the artwork, never null
+     */
+    public ImdbTitleArtwork getTitleArtwork(final String imdbId, final Locale locale) {
+        ImdbTitleArtwork titleArtwork = null;
         try {
-            final String cacheKey = "titlephotos###"+imdbId+"###"+locale.getLanguage();
-            titlePhotos = cache.get(cacheKey, List.class);
-            if (titlePhotos == null) {
-                titlePhotos = imdbApi.getTitlePhotos(imdbId, locale);
-                cache.store(cacheKey, titlePhotos);
-            }
+            final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_TITLE_ARTWORK, null);
+            titleArtwork = getCoalesced(cacheKey, ImdbTitleArtwork.class, new Loader<ImdbTitleArtwork, ImdbException>() {
+                @Override
+                public ImdbTitleArtwork load() throws ImdbException {
+                    rateGovernor.acquire(Endpoint.APP_API);
+                    return ImdbTitleArtwork.of(imdbApi.getTitlePhotos(imdbId, locale));
+                }
+            });
         } catch (ImdbException ex) {
+            rateGovernor.update(Endpoint.APP_API, ex.getResponseCode());
             LOG.error("Failed to get title photos using IMDb ID {}: {}", imdbId, ex.getMessage());
             LOG.trace(API_ERROR, ex);
         }
-        return titlePhotos == null ? new ArrayList<ImdbImage>(0) : titlePhotos;
+        return titleArtwork == null ? ImdbTitleArtwork.EMPTY : titleArtwork;
     }
 
-    @SuppressWarnings("unchecked")
-	public Map<Integer,List<ImdbEpisodeDTO>> getTitleEpisodes(String imdbId, Locale locale) {
-        final String cacheKey = "episodes###"+imdbId+"###"+locale.getLanguage();
-        Map<Integer,List<ImdbEpisodeDTO>> result = cache.get(cacheKey, Map.class);
-        if (result != null) {
-            return result;
+    /**
+     * Get the episode table of a series.
+     * 
+     * The table is kept for four hours but refreshed once it's older than 30 minutes. If the
+     * refresh fails, the kept table will be returned.
+     * 
+     * The table is shared by all locales, so it holds no release dates; they and the final
+     * episode titles are taken from the localized episode details.
+     * 
+     * @param imdbId the IMDb id of the series
+     * @param locale the locale used if the episodes must be requested
+     * @return the episode table, never null
+     */
+    public ImdbEpisodeTable getEpisodeTable(String imdbId, Locale locale) {
+        final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_EPISODES, null);
+        final ImdbEpisodeTable cached = cache.get(cacheKey, ImdbEpisodeTable.class);
+        if (cached != null && !cached.isStale(EPISODES_REFRESH_MILLIS)) {
+            return cached;
         }
                         
         List<ImdbSeason> seasons = null;
         try {
+            rateGovernor.acquire(Endpoint.APP_API);
             seasons = imdbApi.getTitleEpisodes(imdbId, locale);
         } catch (ImdbException ex) {
+            rateGovernor.update(Endpoint.APP_API, ex.getResponseCode());
             LOG.error("Failed to get title episodes using IMDb ID {}: {}", imdbId, ex.getMessage());
             LOG.trace(API_ERROR, ex);
         }
         
-        // if nothing found, then return nothing
+        // if nothing found, then return what is known
         if (seasons == null) {
-            return null;
+            return cached == null ? ImdbEpisodeTable.EMPTY : cached;
         }
 
-        result = new HashMap<>();
+        // the dataset knows the real episode numbers; else the builder counts the season
+        final IntIntMap datasetEpisodes = datasetIndex.getEpisodes(imdbId);
+        ImdbEpisodeTable.Builder builder = new ImdbEpisodeTable.Builder();
         for (ImdbSeason season : seasons) {
             if (StringUtils.isNumeric(season.getToken())) {
-                Integer seasonId = Integer.valueOf(season.getToken());
+                final int seasonNumber = Integer.parseInt(season.getToken());
                 List<ImdbEpisodeDTO> episodes = new ArrayList<>();
-                int episodeCounter = 0;
                 for (ImdbMovie movie : season.getEpisodes()) {
                     ImdbEpisodeDTO episode = new ImdbEpisodeDTO();
-                    episode.setEpisode(++episodeCounter);
+                    final int datasetNumber = ImdbDatasetIndex.getEpisodeNumber(datasetEpisodes, movie.getImdbId());
+                    if (datasetNumber > 0 && (datasetNumber >>> 16) == seasonNumber) {
+                        episode.setEpisode(datasetNumber & 0xFFFF);
+                    }
                     episode.setImdbId(movie.getImdbId());
                     episode.setTitle(movie.getTitle());
                     episode.setYear(movie.getYear());
-                    episode.setRelease(locale.getCountry(), parseToDate(movie.getReleaseDate()));
                     episodes.add(episode);
                 }
-                result.put(seasonId, episodes);
+                builder.addSeason(seasonNumber, episodes);
             }
         }
-        cache.store(cacheKey, result);
+        
+        final ImdbEpisodeTable result = builder.build();
+        cache.store(cacheKey, result, EPISODES_KEEP_SECONDS);
         return result;
     }
 
+    /**
+     * Get the rating of a title from the IMDb datasets.
+     * 
+     * @param imdbId the IMDb id
+     * @return the rating between 0 and 100 or -1 if unknown
+     */
+    public int getDatasetRating(String imdbId) {
+        final float rating = datasetIndex.getRating(imdbId);
+        return rating < 0f ? -1 : Math.round(rating * 10f);
+    }
+
+    /**
+     * Get the parsed AKA titles of a title.
+     * 
+     * @param imdbId the IMDb id
+     * @return the AKA index; null if the release info could not be requested
+     */
+    public ImdbAkaIndex getAkaIndex(final String imdbId) {
+        final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_AKAS, null);
+        return getCoalesced(cacheKey, ImdbAkaIndex.class, new Loader<ImdbAkaIndex, RuntimeException>() {
+            @Override
+            public ImdbAkaIndex load() {
+                final String releaseInfoXML = getReleasInfoXML(imdbId);
+                // failed requests are not cached
+                return releaseInfoXML == null ? null : ImdbAkaIndex.parse(releaseInfoXML);
+            }
+        });
+    }
+
     public String getReleasInfoXML(final String imdbId) {
         String webpage = null;
         try {
-            final DigestedResponse response = httpClient.requestContent(getImdbUrl(imdbId, "releaseinfo"), UTF8);
+            final DigestedResponse response = requestContent(Endpoint.TITLE_PAGE, getImdbUrl(imdbId, "releaseinfo"));
             if (isOK(response)) {
                 webpage = response.getContent();
             } else {
@@ -258,10 +428,40 @@ public class ImdbApiWrapper {
         return webpage;
     }
 
+    /**
+     * Get the mini biography of a person from the biography page.
+     * 
+     * @param imdbId the IMDb id of the person
+     * @param throwTempError flag to indicate if error should be thrown if service is temporary not available
+     * @return the biography or an empty string if there is none
+     * @throws IOException if the request failed
+     */
+    public String getPersonBiography(final String imdbId, final boolean throwTempError) throws IOException {
+        final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_PERSON_BIO, null);
+        return getCoalesced(cacheKey, String.class, new Loader<String, IOException>() {
+            @Override
+            public String load() throws IOException {
+                return parseBiography(getPersonBioXML(imdbId, throwTempError));
+            }
+        });
+    }
+
+    private static String parseBiography(String bio) {
+        if (bio == null || !bio.contains(">Mini Bio (1)</h4>")) {
+            return StringUtils.EMPTY;
+        }
+        
+        String biography = HTMLTools.extractTag(bio, ">Mini Bio (1)</h4>", "<em>- IMDb Mini Biography");
+        if (StringUtils.isBlank(biography) && bio.contains("<a name=\"trivia\">")) {
+            biography = HTMLTools.extractTag(bio, ">Mini Bio (1)</h4>", "<a name=\"trivia\">");
+        }
+        return StringUtils.trimToEmpty(HTMLTools.removeHtmlTags(biography));
+    }
+
     public String getPersonBioXML(final String imdbId, boolean throwTempError) throws IOException {
         DigestedResponse response;
         try {
-            response = httpClient.requestContent(HTML_SITE_FULL + "name/" + imdbId + "/bio", UTF8);
+            response = requestContent(Endpoint.NAME_PAGE, HTML_SITE_FULL + "name/" + imdbId + "/bio");
         } catch (IOException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -272,27 +472,103 @@ public class ImdbApiWrapper {
         return response.getContent();
     }
 
-    public Set<String> getProductionStudios(String imdbId) {
-        Set<String> studios = new LinkedHashSet<>();
+    /**
+     * Get the production studios of a title.
+     * 
+     * The studios are cached as ids into the studio dictionary, so every studio name is
+     * held only once.
+     * 
+     * @param imdbId the IMDb id
+     * @return the studios, never null
+     */
+    public Set<String> getProductionStudios(final String imdbId) {
+        final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_STUDIOS, null);
+        final int[] studioIds = getCoalesced(cacheKey, int[].class, new Loader<int[], RuntimeException>() {
+            @Override
+            public int[] load() {
+                // failed requests are not cached
+                final List<String> studios = requestProductionStudios(imdbId);
+                return studios == null ? null : studioDictionary.intern(studios);
+            }
+        });
+        return studioIds == null ? new LinkedHashSet<String>(0) : studioDictionary.getNames(studioIds);
+    }
+
+    private List<String> requestProductionStudios(String imdbId) {
         try {
-            DigestedResponse response = httpClient.requestContent(getImdbUrl(imdbId, "companycredits"), UTF8);
+            DigestedResponse response = requestContent(Endpoint.TITLE_PAGE, getImdbUrl(imdbId, "companycredits"));
             if (isOK(response)) {
+                List<String> studios = new ArrayList<>();
                 List<String> tags = HTMLTools.extractTags(response.getContent(), "Production Companies</h4>", "</ul>", HTML_A_START, HTML_A_END);
                 for (String tag : tags) {
                     studios.add(HTMLTools.removeHtmlTags(tag));
                 }
-            } else {
-                LOG.warn("Requesting studios failed with status {}: {}", response.getStatusCode(), imdbId);
+                return studios;
             }
+            LOG.warn("Requesting studios failed with status {}: {}", response.getStatusCode(), imdbId);
         } catch (Exception ex) {
             LOG.error("Failed to retrieve studios: " + imdbId, ex);
         }
-        return studios;
+        return null;
+    }
+
+    /**
+     * Get the parsed certifications of a title.
+     * 
+     * @param imdbId the IMDb id
+     * @return the certifications; null if the parental guide could not be requested
+     */
+    public ImdbCertifications getCertifications(final String imdbId) {
+        final long cacheKey = ImdbId.cacheKey(ImdbId.parse(imdbId), CACHE_CERTIFICATIONS, null);
+        return getCoalesced(cacheKey, ImdbCertifications.class, new Loader<ImdbCertifications, RuntimeException>() {
+            @Override
+            public ImdbCertifications load() {
+                final String certificationsXML = getCertificationsXML(imdbId);
+                // failed requests are not cached
+                return certificationsXML == null ? null : ImdbCertifications.parse(certificationsXML);
+            }
+        });
+    }
+
+    private String getCertificationsXML(final String imdbId) {
+        String webpage = null;
+        try {
+            final DigestedResponse response = requestContent(Endpoint.TITLE_PAGE, getImdbUrl(imdbId, "parentalguide#certification"));
+            if (isOK(response)) {
+                webpage = response.getContent();
+            } else {
+                LOG.warn("Requesting certifications failed with status {}: {}", response.getStatusCode(), imdbId);
+            }
+        } catch (Exception ex) {
+            LOG.error("Failed to retrieve certifications: " + imdbId, ex);
+        }
+        return webpage;
+    }
+
+    /**
+     * Get the certification countries of a locale with the country names used by IMDb.
+     * 
+     * @param locale the locale
+     * @return map from country code to the country names
+     */
+    private Map<String, String[]> getCertificationCountries(Locale locale) {
+        Map<String, String[]> countries = certificationCountries.get(locale);
+        if (countries == null) {
+            countries = new LinkedHashMap<>();
+            for (String countryCode : localeService.getCertificationCountryCodes(locale)) {
+                final Collection<String> countryNames = localeService.getCountryNames(countryCode);
+                countries.put(countryCode, countryNames.toArray(new String[countryNames.size()]));
+            }
+            certificationCountries.putIfAbsent(locale, countries);
+        }
+        return countries;
     }
 
     public void parseCertifications(ICombined combined, Locale locale, ImdbMovieDetails movieDetails) {
-        final String imdbId = combined.getId(SOURCE_IMDB);
-        
+        parseCertifications(combined, locale, movieDetails, getCertifications(combined.getId(SOURCE_IMDB)));
+    }
+
+    public void parseCertifications(ICombined combined, Locale locale, ImdbMovieDetails movieDetails, ImdbCertifications certifications) {
         // get certificate from IMDb API movie details
         String certificate = movieDetails.getCertificate().get("certificate");
         if (StringUtils.isNotBlank(certificate)) {
@@ -302,117 +578,113 @@ public class ImdbApiWrapper {
             }
         }
         
+        if (certifications == null) {
+            return;
+        }
+        
+        if (certifications.getMpaa() != null && this.configService.getBooleanProperty("yamj3.certification.mpaa", false)) {
+            combined.addCertification("MPAA", certifications.getMpaa());
+        }
+
+        for (Map.Entry<String, String[]> entry : getCertificationCountries(locale).entrySet()) {
+            certificate = certifications.getCertificate(entry.getValue());
+            if (certificate != null) {
+                combined.addCertification(entry.getKey(), certificate);
+            }
+        }
+    }
+
+    public String getAwardsXML(final String imdbId) {
+        String webpage = null;
         try {
-            DigestedResponse response = httpClient.requestContent(getImdbUrl(imdbId, "parentalguide#certification"), UTF8);
-            if (isNotOK(response)) {
-                LOG.warn("Requesting certifications failed with status {}: {}", response.getStatusCode(), imdbId);
+            final DigestedResponse response = requestContent(Endpoint.TITLE_PAGE, getImdbUrl(imdbId, "awards"));
+            if (isOK(response)) {
+                webpage = response.getContent();
             } else {
-                if (this.configService.getBooleanProperty("yamj3.certification.mpaa", false)) {
-                    String mpaa = HTMLTools.extractTag(response.getContent(), "<h5><a href=\"/mpaa\">MPAA</a>:</h5>", 1);
-                    if (StringUtils.isNotBlank(mpaa)) {
-                        String key = "Rated ";
-                        int pos = mpaa.indexOf(key);
-                        if (pos != -1) {
-                            int start = key.length();
-                            pos = mpaa.indexOf(" on appeal for ", start);
-                            if (pos == -1) {
-                                pos = mpaa.indexOf(" for ", start);
-                            }
-                            if (pos != -1) {
-                                combined.addCertification("MPAA", mpaa.substring(start, pos));
-                            }
-                        }
-                    }
-                }
-
-                List<String> tags = HTMLTools.extractTags(response.getContent(), HTML_H5_START + "Certification" + HTML_H5_END, HTML_DIV_END,
-                                "<a href=\"/search/title?certificates=", HTML_A_END);
-                Collections.reverse(tags);
-                for (String countryCode : localeService.getCertificationCountryCodes(locale)) {
-                    loop: for (String country : localeService.getCountryNames(countryCode)) {
-                        certificate = getPreferredValue(tags, country);
-                        if (StringUtils.isNotBlank(certificate)) {
-                            combined.addCertification(countryCode, certificate);
-                            break loop;
-                        }
-                    }
-                }
+                LOG.warn("Requesting awards failed with status {}: {}", response.getStatusCode(), imdbId);
             }
         } catch (Exception ex) {
-            LOG.error("Failed to retrieve certifications: " + imdbId, ex);
+            LOG.error("Failed to retrieve awards: " + imdbId, ex);
         }
+        return webpage;
     }
 
-    private static String getPreferredValue(List<String> tags, String preferredCountry) {
-        String value = null;
+    public void parseAwards(ICombined combined) {
+        parseAwards(combined, getAwardsXML(combined.getId(SOURCE_IMDB)));
+    }
 
-        for (String text : tags) {
-            String country = null;
+    public void parseAwards(ICombined combined, String awardsXML) {
+        try {
+            ImdbAwardsParser.parse(awardsXML, combined);
+        } catch (Exception ex) {
+            LOG.error("Failed to parse awards: " + combined.getId(SOURCE_IMDB), ex);
+        }
+    }
 
-            int pos = text.indexOf(':');
-            if (pos != -1) {
-                country = text.substring(0, pos);
-                text = text.substring(pos + 1);
-            }
-            pos = text.indexOf('(');
-            if (pos != -1) {
-                text = text.substring(0, pos).trim();
+    /**
+     * Get a cached value or load it. Concurrent callers for the same key wait for one load.
+     * 
+     * @param cacheKey the cache key
+     * @param resultClass the class of the result
+     * @param loader the loader to use if the value is not cached
+     * @return the value, may be null
+     * @throws E the exception thrown by the loader
+     */
+    @SuppressWarnings("unchecked")
+    private <T, E extends Exception> T getCoalesced(final long cacheKey, final Class<T> resultClass, final Loader<? extends T, E> loader) throws E {
+        T result = cache.get(cacheKey, resultClass);
+        if (result != null) {
+            return result;
+        }
+        
+        FutureTask<?> load = new FutureTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                // may have been stored while waiting
+                T value = cache.get(cacheKey, resultClass);
+                if (value == null) {
+                    value = loader.load();
+                    cache.store(cacheKey, value);
+                }
+                return value;
             }
+        });
 
-            if (country == null) {
-                if (StringUtils.isEmpty(value)) {
-                    value = text;
-                }
-            } else if (country.equals(preferredCountry)) {
-                value = text;
-                // No need to continue scanning
-                break;
+        if (cacheKey != ImdbId.INVALID) {
+            final FutureTask<?> running = pending.putIfAbsent(cacheKey, load);
+            if (running != null) {
+                load = running;
             }
         }
-        return HTMLTools.stripTags(value);
-    }
-
-    public void parseAwards(ICombined combined) {
-        final String imdbId = combined.getId(SOURCE_IMDB);
         
         try {
-            DigestedResponse response = httpClient.requestContent(ImdbApiWrapper.getImdbUrl(imdbId, "awards"), UTF8);
-            if (isNotOK(response)) {
-                LOG.warn("Requesting certifications failed with status {}: {}", response.getStatusCode(), imdbId);
-            } else if (response.getContent().contains("<h1 class=\"header\">Awards</h1>")) {
-                List<String> awardBlocks = HTMLTools.extractTags(response.getContent(), "<h1 class=\"header\">Awards</h1>", "<div class=\"article\"", "<h3>", "</table>", false);
-
-                for (String awardBlock : awardBlocks) {
-                    //String realEvent = awardBlock.substring(0, awardBlock.indexOf('<')).trim();
-                    String event = StringUtils.trimToEmpty(HTMLTools.extractTag(awardBlock, "<span class=\"award_category\">", "</span>"));
-  
-                    String tmpString = HTMLTools.extractTag(awardBlock, "<a href=", HTML_A_END).trim();
-                    tmpString = tmpString.substring(tmpString.indexOf('>') + 1).trim();
-                    int year = NumberUtils.isNumber(tmpString) ? Integer.parseInt(tmpString) : -1;
-  
-                    boolean awardWon = true;
-                    for (String outcomeBlock : HTMLTools.extractHtmlTags(awardBlock, "<table class=", null, "<tr>", "</tr>")) {
-                        String outcome = HTMLTools.extractTag(outcomeBlock, "<b>", "</b>");
-                        
-                        if (StringUtils.isNotBlank(outcome)) {
-                            awardWon = "won".equalsIgnoreCase(outcome);
-                        }
-                        
-                        String category = StringUtils.trimToEmpty(HTMLTools.extractTag(outcomeBlock, "<td class=\"award_description\">", "<br />"));
-                        // Check to see if there was a missing title and just the name in the result
-                        if (category.contains("href=\"/name/")) {
-                            category = StringUtils.trimToEmpty(HTMLTools.extractTag(outcomeBlock, "<span class=\"award_category\">", "</span>"));
-                        }
-
-                        combined.addAward(event, category, year, awardWon, !awardWon);
-                    }
-                }
+            // no-op if load is already running or done
+            load.run();
+            return resultClass.cast(load.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PluginExtensionException("IMDb request has been interrupted", ex);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
             }
-        } catch (Exception ex) {
-            LOG.error("Failed to retrieve awards: " + imdbId, ex);
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (E) cause;
+        } finally {
+            pending.remove(cacheKey, load);
         }
     }
 
+    private DigestedResponse requestContent(Endpoint endpoint, String url) throws IOException {
+        rateGovernor.acquire(endpoint);
+        final DigestedResponse response = httpClient.requestContent(url, UTF8);
+        rateGovernor.update(endpoint, response.getStatusCode());
+        return response;
+    }
+
     private static void checkTempError(boolean throwTempError, DigestedResponse response) {
         if (throwTempError && isTemporaryError(response)) {
             throw new TemporaryUnavailableException("IMDb service is temporary not available: " + response.getStatusCode());
@@ -426,4 +698,9 @@ public class ImdbApiWrapper {
             throw new TemporaryUnavailableException("IMDb service temporary not available: " + ex.getResponseCode(), ex);
         }
     }
-}   
+
+    private interface Loader<T, E extends Exception> {
+
+        T load() throws E;
+    }
+}
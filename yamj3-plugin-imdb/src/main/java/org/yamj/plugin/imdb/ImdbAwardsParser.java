@@ -0,0 +1,253 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import org.yamj.plugin.api.model.ICombined;
+
+/**
+ * Parser for the IMDb awards page.
+ *
+ * The page is walked once from tag to tag; only the event, category and year
+ * values which are handed over to {@link ICombined#addAward} are materialized.
+ */
+public final class ImdbAwardsParser {
+
+    private static final String AWARDS_HEADER = "<h1 class=\"header\">Awards</h1>";
+    private static final String ARTICLE_START = "<div class=\"article\"";
+    private static final String BLOCK_START = "<h3>";
+    private static final String TABLE_START = "<table class=";
+    private static final String TABLE_END = "</table>";
+    private static final String ROW_START = "<tr>";
+    private static final String ROW_END = "</tr>";
+    private static final String LINK_START = "<a href=";
+    private static final String LINK_END = "</a>";
+    private static final String CATEGORY_START = "<span class=\"award_category\">";
+    private static final String CATEGORY_END = "</span>";
+    private static final String OUTCOME_START = "<b>";
+    private static final String OUTCOME_END = "</b>";
+    private static final String DESCRIPTION_START = "<td class=\"award_description\">";
+    private static final String DESCRIPTION_END = "<br />";
+    private static final String NAME_LINK = "href=\"/name/";
+
+    private ImdbAwardsParser() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Parse the awards of an IMDb awards page and add them to the combined object.
+     *
+     * @param page the awards page
+     * @param combined the combined object
+     * @return the number of added awards
+     */
+    public static int parse(String page, ICombined combined) {
+        int pos = page == null ? -1 : page.indexOf(AWARDS_HEADER);
+        if (pos < 0) {
+            return 0;
+        }
+        pos += AWARDS_HEADER.length();
+
+        int count = 0;
+        boolean inBlock = false;
+        boolean inTable = false;
+        boolean inRow = false;
+        String event = null;
+        int year = -1;
+        boolean yearPending = false;
+        boolean awardWon = true;
+        String description = null;
+        String rowCategory = null;
+
+        final int length = page.length();
+        while ((pos = page.indexOf('<', pos)) >= 0 && pos + 1 < length) {
+            // dispatch on the first character of the tag name
+            switch (page.charAt(pos + 1)) {
+                case 'd':
+                    if (page.startsWith(ARTICLE_START, pos)) {
+                        return count;
+                    }
+                    pos++;
+                    break;
+                case 'h':
+                    if (page.startsWith(BLOCK_START, pos)) {
+                        inBlock = true;
+                        inTable = false;
+                        inRow = false;
+                        event = null;
+                        year = -1;
+                        yearPending = true;
+                        awardWon = true;
+                        pos += BLOCK_START.length();
+                    } else {
+                        pos++;
+                    }
+                    break;
+                case 'a':
+                    if (inBlock && yearPending && page.startsWith(LINK_START, pos)) {
+                        final int textStart = page.indexOf('>', pos) + 1;
+                        final int textEnd = textStart > 0 ? page.indexOf(LINK_END, textStart) : -1;
+                        if (textEnd < 0) {
+                            return count;
+                        }
+                        year = parseYear(page, textStart, textEnd);
+                        yearPending = false;
+                        pos = textEnd + LINK_END.length();
+                    } else {
+                        pos++;
+                    }
+                    break;
+                case 's':
+                    if (inBlock && page.startsWith(CATEGORY_START, pos)) {
+                        final int textStart = pos + CATEGORY_START.length();
+                        final int textEnd = page.indexOf(CATEGORY_END, textStart);
+                        if (textEnd < 0) {
+                            return count;
+                        }
+                        final String category = text(page, textStart, textEnd);
+                        if (event == null) {
+                            // the first category of a block is the event
+                            event = category;
+                        }
+                        if (inRow && rowCategory == null) {
+                            // the first category of a row is the award category
+                            rowCategory = category;
+                        }
+                        pos = textEnd + CATEGORY_END.length();
+                    } else {
+                        pos++;
+                    }
+                    break;
+                case 'b':
+                    if (inRow && page.startsWith(OUTCOME_START, pos)) {
+                        final int textStart = pos + OUTCOME_START.length();
+                        final int textEnd = page.indexOf(OUTCOME_END, textStart);
+                        if (textEnd < 0) {
+                            return count;
+                        }
+                        // the outcome is valid for all following rows until the next outcome
+                        final int start = skipWhitespace(page, textStart, textEnd);
+                        final int end = skipTrailingWhitespace(page, start, textEnd);
+                        if (start < end) {
+                            awardWon = (end - start) == 3 && page.regionMatches(true, start, "won", 0, 3);
+                        }
+                        pos = textEnd + OUTCOME_END.length();
+                    } else {
+                        pos++;
+                    }
+                    break;
+                case 't':
+                    if (inTable && page.startsWith(ROW_START, pos)) {
+                        inRow = true;
+                        description = null;
+                        rowCategory = null;
+                        pos += ROW_START.length();
+                    } else if (inRow && page.startsWith(DESCRIPTION_START, pos)) {
+                        final int textStart = pos + DESCRIPTION_START.length();
+                        final int textEnd = page.indexOf(DESCRIPTION_END, textStart);
+                        if (textEnd < 0) {
+                            return count;
+                        }
+                        description = text(page, textStart, textEnd);
+                        pos = textEnd + DESCRIPTION_END.length();
+                    } else if (inBlock && page.startsWith(TABLE_START, pos)) {
+                        inTable = true;
+                        pos += TABLE_START.length();
+                    } else {
+                        pos++;
+                    }
+                    break;
+                case '/':
+                    if (inRow && page.startsWith(ROW_END, pos)) {
+                        addAward(combined, event, description, rowCategory, year, awardWon);
+                        count++;
+                        inRow = false;
+                        pos += ROW_END.length();
+                    } else if (inBlock && page.startsWith(TABLE_END, pos)) {
+                        if (inRow) {
+                            addAward(combined, event, description, rowCategory, year, awardWon);
+                            count++;
+                        }
+                        inBlock = false;
+                        inTable = false;
+                        inRow = false;
+                        pos += TABLE_END.length();
+                    } else {
+                        pos++;
+                    }
+                    break;
+                default:
+                    pos++;
+                    break;
+            }
+        }
+        return count;
+    }
+
+    private static void addAward(ICombined combined, String event, String description, String rowCategory, int year, boolean awardWon) {
+        String category = description == null ? "" : description;
+        // check to see if there was a missing title and just the name in the result
+        if (category.contains(NAME_LINK)) {
+            category = rowCategory == null ? "" : rowCategory;
+        }
+        combined.addAward(event == null ? "" : event, category, year, awardWon, !awardWon);
+    }
+
+    private static String text(String page, int start, int end) {
+        final int textStart = skipWhitespace(page, start, end);
+        final int textEnd = skipTrailingWhitespace(page, textStart, end);
+        return textStart >= textEnd ? "" : page.substring(textStart, textEnd);
+    }
+
+    private static int parseYear(String page, int start, int end) {
+        final int textStart = skipWhitespace(page, start, end);
+        final int textEnd = skipTrailingWhitespace(page, textStart, end);
+        if (textStart >= textEnd || textEnd - textStart > 4) {
+            return -1;
+        }
+        int year = 0;
+        for (int i = textStart; i < textEnd; i++) {
+            final char c = page.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            year = year * 10 + (c - '0');
+        }
+        return year;
+    }
+
+    private static int skipWhitespace(String page, int start, int end) {
+        int index = start;
+        while (index < end && page.charAt(index) <= ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipTrailingWhitespace(String page, int start, int end) {
+        int index = end;
+        while (index > start && page.charAt(index - 1) <= ' ') {
+            index--;
+        }
+        return index;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.Element;
+
+/**
+ * Cache wrapper with packed keys of {@link ImdbId#cacheKey}.
+ *
+ * Works like the EhCacheWrapper of the plugin API, but looks up the long keys directly
+ * instead of building a string key for every lookup.
+ */
+public final class ImdbCacheWrapper {
+
+    private final Cache cache;
+
+    public ImdbCacheWrapper(Cache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Get a cached value.
+     *
+     * @param cacheKey the packed cache key
+     * @param resultClass the class of the value
+     * @return the value or null if not cached or the key is invalid
+     */
+    public <T> T get(long cacheKey, Class<T> resultClass) {
+        if (cacheKey == ImdbId.INVALID) {
+            return null;
+        }
+        final Element element = cache.get(cacheKey);
+        return element == null ? null : resultClass.cast(element.getObjectValue());
+    }
+
+    /**
+     * Store a value with the time to live of the cache.
+     *
+     * @param cacheKey the packed cache key
+     * @param value the value; null values are not stored
+     */
+    public void store(long cacheKey, Object value) {
+        if (cacheKey != ImdbId.INVALID && value != null) {
+            cache.put(new Element(cacheKey, value));
+        }
+    }
+
+    /**
+     * Store a value with its own time to live.
+     *
+     * @param cacheKey the packed cache key
+     * @param value the value; null values are not stored
+     * @param timeToLiveSeconds the time to live in seconds
+     */
+    public void store(long cacheKey, Object value, int timeToLiveSeconds) {
+        if (cacheKey != ImdbId.INVALID && value != null) {
+            final Element element = new Element(cacheKey, value);
+            element.setTimeToLive(timeToLiveSeconds);
+            cache.put(element);
+        }
+    }
+}
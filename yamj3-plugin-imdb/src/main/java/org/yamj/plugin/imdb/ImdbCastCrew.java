@@ -0,0 +1,225 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import com.omertron.imdbapi.model.ImdbCast;
+import com.omertron.imdbapi.model.ImdbCredit;
+import com.omertron.imdbapi.model.ImdbPerson;
+import java.util.List;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.yamj.plugin.api.model.type.JobType;
+
+/**
+ * Compact, immutable projection of the full cast of a title.
+ *
+ * The credits are held in parallel arrays grouped by job type, so that a job type can be
+ * iterated as a plain index range. Per credit only the packed person id, the interned name,
+ * the character and a flag byte are held; about 80 bytes per credit in total or roughly
+ * 80 KB per 1k credits. The object graph of the API (credit lists, cast, person, image and
+ * their strings) takes about 500 bytes per credit, so roughly 500 KB per 1k credits, plus
+ * the job lists which were rebuilt for each scan.
+ */
+public final class ImdbCastCrew {
+
+    private static final JobType[] JOB_TYPES = JobType.values();
+    private static final byte FLAG_UNCREDITED = 1;
+    private static final byte FLAG_FACELESS = 2;
+
+    private final long[] personIds;
+    private final String[] names;
+    private final String[] characters;
+    private final byte[] flags;
+    // start offset per job type ordinal; the end is the start of the next ordinal
+    private final int[] offsets;
+
+    private ImdbCastCrew(int size) {
+        this.personIds = new long[size];
+        this.names = new String[size];
+        this.characters = new String[size];
+        this.flags = new byte[size];
+        this.offsets = new int[JOB_TYPES.length + 1];
+    }
+
+    /**
+     * Build the projection out of the full cast.
+     *
+     * @param fullCast the full cast as delivered by the API
+     * @return the projection
+     */
+    public static ImdbCastCrew of(List<ImdbCredit> fullCast) {
+        // count credits per job type
+        final int[] counts = new int[JOB_TYPES.length];
+        if (fullCast != null) {
+            for (ImdbCredit credit : fullCast) {
+                if (CollectionUtils.isNotEmpty(credit.getCredits())) {
+                    counts[getJobType(credit.getToken()).ordinal()] += credit.getCredits().size();
+                }
+            }
+        }
+
+        int size = 0;
+        for (int count : counts) {
+            size += count;
+        }
+        
+        final ImdbCastCrew castCrew = new ImdbCastCrew(size);
+        final int[] positions = new int[JOB_TYPES.length];
+        for (int i = 0, offset = 0; i < JOB_TYPES.length; i++) {
+            castCrew.offsets[i] = offset;
+            positions[i] = offset;
+            offset += counts[i];
+        }
+        castCrew.offsets[JOB_TYPES.length] = size;
+        
+        if (size == 0) {
+            return castCrew;
+        }
+        
+        for (ImdbCredit credit : fullCast) {
+            if (CollectionUtils.isEmpty(credit.getCredits())) {
+                continue;
+            }
+            
+            final int ordinal = getJobType(credit.getToken()).ordinal();
+            for (ImdbCast cast : credit.getCredits()) {
+                castCrew.set(positions[ordinal]++, cast);
+            }
+        }
+        return castCrew;
+    }
+
+    private void set(int index, ImdbCast cast) {
+        final ImdbPerson person = cast.getPerson();
+        if (person == null || StringUtils.isBlank(person.getName())) {
+            // leave name empty to skip the credit
+            return;
+        }
+
+        personIds[index] = ImdbId.parse(person.getActorId());
+        names[index] = person.getName().intern();
+        characters[index] = cast.getCharacter();
+
+        byte flag = 0;
+        if (StringUtils.contains(cast.getAttr(), "(uncredited")) {
+            flag |= FLAG_UNCREDITED;
+        }
+        if (person.getImage() == null || StringUtils.isEmpty(person.getImage().getUrl())) {
+            flag |= FLAG_FACELESS;
+        }
+        flags[index] = flag;
+    }
+
+    private static JobType getJobType(String token) {
+        switch (StringUtils.trimToEmpty(token)) {
+            case "cast":
+                return JobType.ACTOR;
+            case "writers":
+                return JobType.WRITER;
+            case "directors":
+                return JobType.DIRECTOR;
+            case "cinematographers":
+                return JobType.CAMERA;
+            case "editors":
+                return JobType.EDITING;
+            case "producers":
+            case "casting_directors":
+                return JobType.PRODUCER;
+            case "music_original":
+                return JobType.SOUND;
+            case "production_designers":
+            case "art_directors":
+            case "set_decorators":
+                return JobType.ART;
+            case "costume_designers":
+                return JobType.COSTUME_MAKEUP;
+            case "assistant_directors":
+            case "production_managers":
+            case "art_department":
+            case "sound_department":
+            case "special_effects_department":
+            case "visual_effects_department":
+            case "stunts":
+            case "camera_department":
+            case "animation_department":
+            case "casting_department":
+            case "costume_department":
+            case "editorial_department":
+            case "music_department":
+            case "transportation_department":
+            case "make_up_department":
+            case "miscellaneous":
+                return JobType.CREW;
+            default:
+                return JobType.UNKNOWN;
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    /**
+     * Get the first index of the credits of a job type.
+     *
+     * @param jobType the job type
+     * @return the first index
+     */
+    public int start(JobType jobType) {
+        return offsets[jobType.ordinal()];
+    }
+
+    /**
+     * Get the index after the last credit of a job type.
+     *
+     * @param jobType the job type
+     * @return the end index (exclusive)
+     */
+    public int end(JobType jobType) {
+        return offsets[jobType.ordinal() + 1];
+    }
+
+    public String getPersonId(int index) {
+        return ImdbId.toString(personIds[index]);
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public String getCharacter(int index) {
+        return characters[index];
+    }
+
+    public boolean isUncredited(int index) {
+        return (flags[index] & FLAG_UNCREDITED) != 0;
+    }
+
+    public boolean isFaceless(int index) {
+        return (flags[index] & FLAG_FACELESS) != 0;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.util.*;
+import org.apache.commons.lang3.StringUtils;
+import org.yamj.plugin.api.web.HTMLTools;
+
+/**
+ * Parsed certifications of a title.
+ *
+ * The certification section of the parental guide is parsed once into a map from the
+ * country name as used by IMDb to the certificate, so that a certificate for a country is
+ * found by one hash lookup.
+ */
+public final class ImdbCertifications {
+
+    public static final ImdbCertifications EMPTY = new ImdbCertifications(null, null, Collections.<String, String>emptyMap());
+
+    private final String mpaa;
+    private final String fallback;
+    private final Map<String, String> certificates;
+
+    private ImdbCertifications(String mpaa, String fallback, Map<String, String> certificates) {
+        this.mpaa = mpaa;
+        this.fallback = fallback;
+        this.certificates = certificates;
+    }
+
+    /**
+     * Parse the certification section of the parental guide.
+     *
+     * @param certificationsXML the parental guide page
+     * @return the certifications, never null
+     */
+    public static ImdbCertifications parse(String certificationsXML) {
+        if (certificationsXML == null) {
+            return EMPTY;
+        }
+        
+        final String mpaa = parseMpaa(HTMLTools.extractTag(certificationsXML, "<h5><a href=\"/mpaa\">MPAA</a>:</h5>", 1));
+        
+        final List<String> tags = HTMLTools.extractTags(certificationsXML, "<h5>Certification:</h5>", "</div>",
+                        "<a href=\"/search/title?certificates=", "</a>");
+        String fallback = null;
+        final Map<String, String> certificates = new HashMap<>();
+        // the last certificate of a country wins
+        for (String tag : tags) {
+            String text = tag;
+            String country = null;
+
+            int pos = text.indexOf(':');
+            if (pos != -1) {
+                country = text.substring(0, pos);
+                text = text.substring(pos + 1);
+            }
+            pos = text.indexOf('(');
+            if (pos != -1) {
+                text = text.substring(0, pos).trim();
+            }
+
+            if (country != null) {
+                certificates.put(country, HTMLTools.stripTags(text));
+            } else if (StringUtils.isNotEmpty(text)) {
+                // certificate without country
+                fallback = HTMLTools.stripTags(text);
+            }
+        }
+        
+        if (mpaa == null && fallback == null && certificates.isEmpty()) {
+            return EMPTY;
+        }
+        return new ImdbCertifications(mpaa, fallback, certificates);
+    }
+
+    private static String parseMpaa(String mpaa) {
+        if (StringUtils.isBlank(mpaa)) {
+            return null;
+        }
+        
+        final String key = "Rated ";
+        if (mpaa.indexOf(key) == -1) {
+            return null;
+        }
+        final int start = key.length();
+        int pos = mpaa.indexOf(" on appeal for ", start);
+        if (pos == -1) {
+            pos = mpaa.indexOf(" for ", start);
+        }
+        return pos == -1 ? null : mpaa.substring(start, pos);
+    }
+
+    public String getMpaa() {
+        return mpaa;
+    }
+
+    /**
+     * Get the certificate for a country.
+     *
+     * @param countryNames the names of the country as used by IMDb in order of preference
+     * @return the certificate or null if not found
+     */
+    public String getCertificate(String[] countryNames) {
+        for (String countryName : countryNames) {
+            final String certificate = certificates.containsKey(countryName) ? certificates.get(countryName) : fallback;
+            if (StringUtils.isNotBlank(certificate)) {
+                return certificate;
+            }
+        }
+        return null;
+    }
+}
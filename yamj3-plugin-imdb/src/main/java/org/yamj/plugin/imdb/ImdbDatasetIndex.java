@@ -0,0 +1,752 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.yamj.plugin.api.Constants.UTF8;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local index of the IMDb datasets.
+ *
+ * The gzipped TSV files published by IMDb (title.basics, title.akas, title.ratings,
+ * title.episode and name.basics) are imported into sorted binary tables which are memory
+ * mapped for lookups. A table is only imported again if the checksum of its source files
+ * changed. Uncompressed TSV files are accepted as well.
+ *
+ * Title and name lookups only resolve unambiguous matches; everything else is left to the
+ * online search.
+ */
+public class ImdbDatasetIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImdbDatasetIndex.class);
+    private static final String STATE_FILE = "dataset.state";
+    private static final String NULL_VALUE = "\\N";
+    private static final int CATEGORY_MOVIE = 1;
+    private static final int CATEGORY_TV = 2;
+    private static final int NO_RATING = -1;
+
+    // tables with their sources and record sizes
+    private static final String TABLE_TITLES = "titles";
+    private static final String TABLE_NAMES = "names";
+    private static final String TABLE_RATINGS = "ratings";
+    private static final String TABLE_EPISODES = "episodes";
+    private static final String[] TABLES = {TABLE_TITLES, TABLE_NAMES, TABLE_RATINGS, TABLE_EPISODES};
+    // hash of normalized title, title number, year and category
+    private static final int TITLE_RECORD = 16;
+    // hash of normalized name, name number
+    private static final int NAME_RECORD = 12;
+    // title number, rating multiplied by 10
+    private static final int RATING_RECORD = 8;
+    // parent number, season, episode, title number
+    private static final int EPISODE_RECORD = 12;
+
+    private final File sourceDirectory;
+    private final File indexDirectory;
+    private final Map<String, ByteBuffer> tables = new HashMap<>();
+    private final Properties state = new Properties();
+
+    public ImdbDatasetIndex(File sourceDirectory, File indexDirectory) {
+        this.sourceDirectory = sourceDirectory;
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * Map the imported tables and schedule the import of changed datasets.
+     *
+     * @param scheduler the scheduler to use
+     * @param refreshMillis the interval for checking the datasets in milliseconds
+     */
+    public void start(ScheduledExecutorService scheduler, long refreshMillis) {
+        load();
+
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                importChanged();
+            }
+        }, 0, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Map the tables of the last import.
+     */
+    public synchronized void load() {
+        final File stateFile = new File(indexDirectory, STATE_FILE);
+        if (!stateFile.isFile()) {
+            return;
+        }
+        
+        try (InputStream in = new FileInputStream(stateFile)) {
+            state.load(in);
+        } catch (IOException ex) {
+            LOG.warn("Failed to load dataset state: {}", ex.getMessage());
+            LOG.trace("Dataset error", ex);
+            return;
+        }
+        
+        for (String table : TABLES) {
+            final String checksum = state.getProperty(table);
+            if (checksum != null) {
+                try {
+                    mapTable(table, checksum);
+                } catch (IOException ex) {
+                    LOG.warn("Failed to map dataset table {}: {}", table, ex.getMessage());
+                    LOG.trace("Dataset error", ex);
+                    state.remove(table);
+                }
+            }
+        }
+    }
+
+    /**
+     * Import the tables whose source files changed.
+     *
+     * @return true if any table has been imported
+     */
+    public synchronized boolean importChanged() {
+        boolean imported = false;
+        try {
+            imported |= importTable(TABLE_TITLES, "title.basics", "title.akas");
+            imported |= importTable(TABLE_NAMES, "name.basics");
+            imported |= importTable(TABLE_RATINGS, "title.ratings");
+            imported |= importTable(TABLE_EPISODES, "title.episode");
+        } catch (IOException ex) {
+            LOG.warn("Failed to import IMDb datasets: {}", ex.getMessage());
+            LOG.trace("Dataset error", ex);
+        }
+        
+        if (imported) {
+            saveState();
+            deleteStaleFiles();
+        }
+        return imported;
+    }
+
+    private boolean importTable(String table, String... sources) throws IOException {
+        final File[] files = new File[sources.length];
+        final StringBuilder checksum = new StringBuilder();
+        for (int i = 0; i < sources.length; i++) {
+            files[i] = getSourceFile(sources[i]);
+            if (files[i] == null) {
+                if (i == 0) {
+                    // main source not present
+                    return false;
+                }
+                checksum.append("-0");
+            } else {
+                checksum.append('-').append(Long.toHexString(checksum(files[i])));
+            }
+        }
+        
+        final String newChecksum = checksum.substring(1);
+        if (newChecksum.equals(state.getProperty(table)) && tables.containsKey(table)) {
+            LOG.debug("Dataset table {} is up to date", table);
+            return false;
+        }
+
+        LOG.info("Import dataset table {}", table);
+        final long start = System.currentTimeMillis();
+        final RecordBuffer records;
+        switch (table) {
+            case TABLE_TITLES:
+                records = readTitles(files[0], files[1]);
+                break;
+            case TABLE_NAMES:
+                records = readNames(files[0]);
+                break;
+            case TABLE_RATINGS:
+                records = readRatings(files[0]);
+                break;
+            default:
+                records = readEpisodes(files[0]);
+                break;
+        }
+        records.sort();
+        writeTable(table, newChecksum, records);
+        mapTable(table, newChecksum);
+        state.setProperty(table, newChecksum);
+        LOG.info("Imported {} records into dataset table {} in {} ms", records.size, table, System.currentTimeMillis() - start);
+        return true;
+    }
+
+    // IMPORT
+
+    private static RecordBuffer readTitles(File basics, File akas) throws IOException {
+        final RecordBuffer records = new RecordBuffer();
+        final IntIntMap titleInfo = new IntIntMap(1024);
+
+        try (BufferedReader reader = openReader(basics)) {
+            String[] row;
+            while ((row = readRow(reader)) != null) {
+                // tconst, titleType, primaryTitle, originalTitle, isAdult, startYear, ...
+                if (row.length < 6) {
+                    continue;
+                }
+                final int number = parseNumber(row[0]);
+                final int category = getCategory(row[1]);
+                if (number <= 0 || category == 0) {
+                    continue;
+                }
+                
+                final int year = NumberUtils.toInt(row[5]);
+                final long value = titleValue(number, year, category);
+                final long primaryHash = hash(row[2]);
+                records.add(primaryHash, value);
+                final long originalHash = hash(row[3]);
+                if (originalHash != primaryHash) {
+                    records.add(originalHash, value);
+                }
+                titleInfo.put(number, (year << 2) | category);
+            }
+        }
+        
+        if (akas != null) {
+            try (BufferedReader reader = openReader(akas)) {
+                final Set<Long> hashes = new HashSet<>();
+                int lastNumber = 0;
+                String[] row;
+                while ((row = readRow(reader)) != null) {
+                    // titleId, ordering, title, region, language, types, attributes, isOriginalTitle
+                    if (row.length < 3) {
+                        continue;
+                    }
+                    final int number = parseNumber(row[0]);
+                    final int info = titleInfo.get(number, 0);
+                    if (info == 0) {
+                        continue;
+                    }
+                    
+                    // AKAs are sorted by title, so duplicates are within consecutive rows
+                    if (number != lastNumber) {
+                        hashes.clear();
+                        lastNumber = number;
+                    }
+                    final long hash = hash(row[2]);
+                    if (hashes.add(Long.valueOf(hash))) {
+                        records.add(hash, titleValue(number, info >>> 2, info & 3));
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    private static RecordBuffer readNames(File names) throws IOException {
+        final RecordBuffer records = new RecordBuffer();
+        try (BufferedReader reader = openReader(names)) {
+            String[] row;
+            while ((row = readRow(reader)) != null) {
+                // nconst, primaryName, ...
+                if (row.length < 2) {
+                    continue;
+                }
+                final int number = parseNumber(row[0]);
+                if (number > 0 && !NULL_VALUE.equals(row[1])) {
+                    records.add(hash(row[1]), number);
+                }
+            }
+        }
+        return records;
+    }
+
+    private static RecordBuffer readRatings(File ratings) throws IOException {
+        final RecordBuffer records = new RecordBuffer();
+        try (BufferedReader reader = openReader(ratings)) {
+            String[] row;
+            while ((row = readRow(reader)) != null) {
+                // tconst, averageRating, numVotes
+                if (row.length < 2) {
+                    continue;
+                }
+                final int number = parseNumber(row[0]);
+                final float rating = NumberUtils.toFloat(row[1], -1f);
+                if (number > 0 && rating >= 0f) {
+                    records.add(number, Math.round(rating * 10f));
+                }
+            }
+        }
+        return records;
+    }
+
+    private static RecordBuffer readEpisodes(File episodes) throws IOException {
+        final RecordBuffer records = new RecordBuffer();
+        try (BufferedReader reader = openReader(episodes)) {
+            String[] row;
+            while ((row = readRow(reader)) != null) {
+                // tconst, parentTconst, seasonNumber, episodeNumber
+                if (row.length < 4) {
+                    continue;
+                }
+                final int number = parseNumber(row[0]);
+                final int parent = parseNumber(row[1]);
+                final int season = NumberUtils.toInt(row[2], -1);
+                final int episode = NumberUtils.toInt(row[3], -1);
+                if (number > 0 && parent > 0 && season >= 0 && season <= 0xFFFF && episode >= 0 && episode <= 0xFFFF) {
+                    records.add(((long) parent << 32) | (season << 16) | episode, number);
+                }
+            }
+        }
+        return records;
+    }
+
+    private static long titleValue(int number, int year, int category) {
+        return ((long) number << 32) | ((year & 0xFFFF) << 8) | category;
+    }
+
+    private static int getCategory(String titleType) {
+        switch (titleType) {
+            case "movie":
+            case "tvMovie":
+            case "video":
+                return CATEGORY_MOVIE;
+            case "tvSeries":
+            case "tvMiniSeries":
+                return CATEGORY_TV;
+            default:
+                return 0;
+        }
+    }
+
+    private File getSourceFile(String source) {
+        File file = new File(sourceDirectory, source + ".tsv.gz");
+        if (file.isFile()) {
+            return file;
+        }
+        file = new File(sourceDirectory, source + ".tsv");
+        return file.isFile() ? file : null;
+    }
+
+    private static long checksum(File file) throws IOException {
+        final CRC32 crc = new CRC32();
+        try (InputStream in = new FileInputStream(file)) {
+            final byte[] buffer = new byte[65536];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static BufferedReader openReader(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file), 65536);
+        if (file.getName().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 65536);
+        }
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF8), 65536);
+        // skip header
+        reader.readLine();
+        return reader;
+    }
+
+    private static String[] readRow(BufferedReader reader) throws IOException {
+        final String line = reader.readLine();
+        return line == null ? null : StringUtils.splitPreserveAllTokens(line, '\t');
+    }
+
+    private static int parseNumber(String id) {
+        final long packed = ImdbId.parse(id);
+        if (packed == ImdbId.INVALID || ImdbId.getNumber(packed) > Integer.MAX_VALUE) {
+            return 0;
+        }
+        return (int) ImdbId.getNumber(packed);
+    }
+
+    /**
+     * Normalize a title or name and build a 64 bit FNV-1a hash of it.
+     *
+     * Accents, case and punctuation are ignored.
+     */
+    static long hash(String value) {
+        if (value == null || NULL_VALUE.equals(value)) {
+            return 0L;
+        }
+        
+        final String normalized = Normalizer.normalize(value, Normalizer.Form.NFD);
+        long hash = 0xcbf29ce484222325L;
+        boolean space = false;
+        boolean started = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            final char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && started) {
+                    hash = (hash ^ ' ') * 0x100000001b3L;
+                }
+                hash = (hash ^ Character.toLowerCase(c)) * 0x100000001b3L;
+                space = false;
+                started = true;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                // any other character separates words
+                space = true;
+            }
+        }
+        return hash;
+    }
+
+    // TABLE FILES
+
+    private File getTableFile(String table, String checksum) {
+        return new File(indexDirectory, table + "-" + checksum + ".idx");
+    }
+
+    private void writeTable(String table, String checksum, RecordBuffer records) throws IOException {
+        if (!indexDirectory.isDirectory() && !indexDirectory.mkdirs()) {
+            throw new IOException("Failed to create directory " + indexDirectory);
+        }
+        
+        final File tempFile = File.createTempFile(table, ".tmp", indexDirectory);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 65536))) {
+            for (int i = 0; i < records.size; i++) {
+                final long key = records.keys[i];
+                final long value = records.values[i];
+                switch (table) {
+                    case TABLE_TITLES:
+                        out.writeLong(key);
+                        out.writeInt((int) (value >>> 32));
+                        out.writeShort((int) (value >>> 8) & 0xFFFF);
+                        out.writeShort((int) value & 0xFF);
+                        break;
+                    case TABLE_NAMES:
+                        out.writeLong(key);
+                        out.writeInt((int) value);
+                        break;
+                    case TABLE_RATINGS:
+                        out.writeInt((int) key);
+                        out.writeInt((int) value);
+                        break;
+                    default:
+                        out.writeLong(key);
+                        out.writeInt((int) value);
+                        break;
+                }
+            }
+        }
+        Files.move(tempFile.toPath(), getTableFile(table, checksum).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void mapTable(String table, String checksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(getTableFile(table, checksum).toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            synchronized (tables) {
+                tables.put(table, buffer);
+            }
+        }
+    }
+
+    private void saveState() {
+        final File stateFile = new File(indexDirectory, STATE_FILE);
+        try (OutputStream out = new FileOutputStream(stateFile)) {
+            state.store(out, "IMDb dataset state");
+        } catch (IOException ex) {
+            LOG.warn("Failed to save dataset state: {}", ex.getMessage());
+            LOG.trace("Dataset error", ex);
+        }
+    }
+
+    private void deleteStaleFiles() {
+        final File[] files = indexDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        
+        final Set<String> current = new HashSet<>();
+        for (String table : TABLES) {
+            final String checksum = state.getProperty(table);
+            if (checksum != null) {
+                current.add(getTableFile(table, checksum).getName());
+            }
+        }
+        for (File file : files) {
+            if (file.getName().endsWith(".idx") && !current.contains(file.getName()) && !file.delete()) {
+                // may still be mapped; will be deleted on next import
+                LOG.debug("Could not delete stale dataset table {}", file.getName());
+            }
+        }
+    }
+
+    private ByteBuffer getTable(String table) {
+        synchronized (tables) {
+            return tables.get(table);
+        }
+    }
+
+    // LOOKUPS
+
+    public boolean isAvailable() {
+        synchronized (tables) {
+            return !tables.isEmpty();
+        }
+    }
+
+    /**
+     * Find the IMDb id of a title.
+     *
+     * @param title the title
+     * @param year the year; any year if not positive
+     * @param tvShow true to search for series, false to search for movies
+     * @return the IMDb id or null if there is no unambiguous match
+     */
+    public String findTitle(String title, int year, boolean tvShow) {
+        final ByteBuffer table = getTable(TABLE_TITLES);
+        final long hash = hash(title);
+        if (table == null || hash == 0L) {
+            return null;
+        }
+        
+        final int category = tvShow ? CATEGORY_TV : CATEGORY_MOVIE;
+        int found = 0;
+        for (int i = lowerBound(table, TITLE_RECORD, hash); i < table.limit() / TITLE_RECORD; i++) {
+            final int offset = i * TITLE_RECORD;
+            if (table.getLong(offset) != hash) {
+                break;
+            }
+            if ((table.getShort(offset + 14) & 0xFF) != category) {
+                continue;
+            }
+            if (year > 0 && (table.getShort(offset + 12) & 0xFFFF) != year) {
+                continue;
+            }
+            
+            final int number = table.getInt(offset + 8);
+            if (found != 0 && found != number) {
+                // ambiguous
+                return null;
+            }
+            found = number;
+        }
+        return found == 0 ? null : toImdbId("tt", found);
+    }
+
+    /**
+     * Find the IMDb id of a person.
+     *
+     * @param name the name of the person
+     * @return the IMDb id or null if there is no unambiguous match
+     */
+    public String findPerson(String name) {
+        final ByteBuffer table = getTable(TABLE_NAMES);
+        final long hash = hash(name);
+        if (table == null || hash == 0L) {
+            return null;
+        }
+        
+        final int index = lowerBound(table, NAME_RECORD, hash);
+        final int count = table.limit() / NAME_RECORD;
+        if (index >= count || table.getLong(index * NAME_RECORD) != hash) {
+            return null;
+        }
+        if (index + 1 < count && table.getLong((index + 1) * NAME_RECORD) == hash) {
+            // ambiguous
+            return null;
+        }
+        return toImdbId("nm", table.getInt(index * NAME_RECORD + 8));
+    }
+
+    /**
+     * Get the rating of a title.
+     *
+     * @param imdbId the IMDb id
+     * @return the rating between 0 and 10 or -1 if unknown
+     */
+    public float getRating(String imdbId) {
+        final ByteBuffer table = getTable(TABLE_RATINGS);
+        final int number = parseNumber(imdbId);
+        if (table == null || number <= 0) {
+            return NO_RATING;
+        }
+
+        int low = 0;
+        int high = table.limit() / RATING_RECORD - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int midNumber = table.getInt(mid * RATING_RECORD);
+            if (midNumber < number) {
+                low = mid + 1;
+            } else if (midNumber > number) {
+                high = mid - 1;
+            } else {
+                return table.getInt(mid * RATING_RECORD + 4) / 10f;
+            }
+        }
+        return NO_RATING;
+    }
+
+    /**
+     * Get the season and episode numbers of the episodes of a series.
+     *
+     * @param imdbId the IMDb id of the series
+     * @return map from episode title number to season and episode packed as (season &lt;&lt; 16 | episode); null if unknown
+     */
+    public IntIntMap getEpisodes(String imdbId) {
+        final ByteBuffer table = getTable(TABLE_EPISODES);
+        final int parent = parseNumber(imdbId);
+        if (table == null || parent <= 0) {
+            return null;
+        }
+        
+        final int count = table.limit() / EPISODE_RECORD;
+        final int start = lowerBound(table, EPISODE_RECORD, (long) parent << 32);
+        int end = start;
+        while (end < count && (int) (table.getLong(end * EPISODE_RECORD) >>> 32) == parent) {
+            end++;
+        }
+        if (start == end) {
+            return null;
+        }
+        
+        final IntIntMap episodes = new IntIntMap(end - start);
+        for (int i = start; i < end; i++) {
+            final int offset = i * EPISODE_RECORD;
+            episodes.put(table.getInt(offset + 8), (int) table.getLong(offset));
+        }
+        return episodes;
+    }
+
+    /**
+     * Get the number of the given episode within the episodes of a series.
+     *
+     * @param episodes the episodes of the series
+     * @param imdbId the IMDb id of the episode
+     * @return the season and episode packed as (season &lt;&lt; 16 | episode) or -1 if unknown
+     */
+    public static int getEpisodeNumber(IntIntMap episodes, String imdbId) {
+        final int number = parseNumber(imdbId);
+        if (episodes == null || number <= 0) {
+            return -1;
+        }
+        return episodes.get(number, -1);
+    }
+
+    private static int lowerBound(ByteBuffer table, int recordSize, long key) {
+        int low = 0;
+        int high = table.limit() / recordSize;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (table.getLong(mid * recordSize) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String toImdbId(String prefix, int number) {
+        final String digits = Integer.toString(number);
+        final StringBuilder sb = new StringBuilder(prefix.length() + Math.max(7, digits.length())).append(prefix);
+        for (int i = digits.length(); i < 7; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    /**
+     * Growable parallel arrays of long keys and values, sorted by key and value.
+     */
+    private static final class RecordBuffer {
+
+        private long[] keys = new long[1024];
+        private long[] values = new long[1024];
+        private int size;
+
+        public void add(long key, long value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+        }
+
+        public void sort() {
+            sort(0, size - 1);
+        }
+
+        private void sort(int low, int high) {
+            while (high - low > 16) {
+                final int mid = (low + high) >>> 1;
+                final long pivotKey = keys[mid];
+                final long pivotValue = values[mid];
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (compare(i, pivotKey, pivotValue) < 0) {
+                        i++;
+                    }
+                    while (compare(j, pivotKey, pivotValue) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // recurse into the smaller part
+                if (j - low < high - i) {
+                    sort(low, j);
+                    low = i;
+                } else {
+                    sort(i, high);
+                    high = j;
+                }
+            }
+            
+            // insertion sort for small ranges
+            for (int i = low + 1; i <= high; i++) {
+                for (int j = i; j > low && compare(j, keys[j - 1], values[j - 1]) < 0; j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private int compare(int index, long key, long value) {
+            final int result = Long.compare(keys[index], key);
+            return result != 0 ? result : Long.compare(values[index], value);
+        }
+
+        private void swap(int i, int j) {
+            final long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            final long value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+}
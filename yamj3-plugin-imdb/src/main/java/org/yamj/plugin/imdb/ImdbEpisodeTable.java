@@ -0,0 +1,177 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.util.*;
+
+/**
+ * Immutable table of the episodes of a series.
+ *
+ * Episodes are held sorted by a key which packs season and episode number into one int,
+ * so that an episode or all episodes of a season can be looked up by binary search.
+ */
+public final class ImdbEpisodeTable {
+
+    public static final ImdbEpisodeTable EMPTY = new ImdbEpisodeTable(new int[0], new ImdbEpisodeDTO[0], 0L);
+
+    private final int[] keys;
+    private final ImdbEpisodeDTO[] episodes;
+    private final long created;
+
+    private ImdbEpisodeTable(int[] keys, ImdbEpisodeDTO[] episodes, long created) {
+        this.keys = keys;
+        this.episodes = episodes;
+        this.created = created;
+    }
+
+    private static int key(int season, int episode) {
+        return (season << 16) | (episode & 0xFFFF);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Indicates if the table is older than the given age.
+     *
+     * @param maxAgeMillis the maximum age in milliseconds
+     * @return true if the table should be refreshed
+     */
+    public boolean isStale(long maxAgeMillis) {
+        return System.currentTimeMillis() - created > maxAgeMillis;
+    }
+
+    /**
+     * Get an episode.
+     *
+     * @param season the season number
+     * @param episode the episode number
+     * @return the episode or null if not present
+     */
+    public ImdbEpisodeDTO getEpisode(int season, int episode) {
+        final int index = Arrays.binarySearch(keys, key(season, episode));
+        return index < 0 ? null : episodes[index];
+    }
+
+    /**
+     * Get all episodes of a season.
+     *
+     * @param season the season number
+     * @return the episodes in the order of their numbers; never null
+     */
+    public List<ImdbEpisodeDTO> getEpisodes(int season) {
+        final int start = lowerBound(key(season, 0));
+        final int end = lowerBound(key(season + 1, 0));
+        if (start == end) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(episodes).subList(start, end));
+    }
+
+    private int lowerBound(int key) {
+        final int index = Arrays.binarySearch(keys, key);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    /**
+     * Builder for an episode table.
+     */
+    public static final class Builder {
+
+        private final Map<Integer, List<ImdbEpisodeDTO>> seasons = new TreeMap<>();
+
+        /**
+         * Add the episodes of a season.
+         *
+         * An episode number of 0 means the number is unknown. If any episode of the season
+         * has no known number, all episodes of the season are numbered in the given order,
+         * so that known and counted numbers can't collide.
+         *
+         * @param season the season number
+         * @param seasonEpisodes the episodes of the season in their order
+         * @return the builder
+         */
+        public Builder addSeason(int season, List<ImdbEpisodeDTO> seasonEpisodes) {
+            boolean numbered = true;
+            for (ImdbEpisodeDTO episode : seasonEpisodes) {
+                if (episode.getEpisode() <= 0) {
+                    numbered = false;
+                    break;
+                }
+            }
+            if (!numbered) {
+                int counter = 0;
+                for (ImdbEpisodeDTO episode : seasonEpisodes) {
+                    episode.setEpisode(++counter);
+                }
+            }
+            seasons.put(Integer.valueOf(season), seasonEpisodes);
+            return this;
+        }
+
+        /**
+         * Build the table.
+         *
+         * @return the table
+         */
+        public ImdbEpisodeTable build() {
+            int size = 0;
+            for (List<ImdbEpisodeDTO> seasonEpisodes : seasons.values()) {
+                size += seasonEpisodes.size();
+            }
+
+            final int[] keys = new int[size];
+            final ImdbEpisodeDTO[] episodes = new ImdbEpisodeDTO[size];
+            int index = 0;
+            for (Map.Entry<Integer, List<ImdbEpisodeDTO>> entry : seasons.entrySet()) {
+                final int season = entry.getKey().intValue();
+                final List<ImdbEpisodeDTO> seasonEpisodes = entry.getValue();
+                final ImdbEpisodeDTO[] sorted = seasonEpisodes.toArray(new ImdbEpisodeDTO[seasonEpisodes.size()]);
+                Arrays.sort(sorted, EPISODE_ORDER);
+                for (ImdbEpisodeDTO episode : sorted) {
+                    final int key = key(season, episode.getEpisode());
+                    if (index > 0 && keys[index - 1] == key) {
+                        // duplicate episode number; keep the first one
+                        continue;
+                    }
+                    keys[index] = key;
+                    episodes[index] = episode;
+                    index++;
+                }
+            }
+
+            if (index < size) {
+                return new ImdbEpisodeTable(Arrays.copyOf(keys, index), Arrays.copyOf(episodes, index), System.currentTimeMillis());
+            }
+            return new ImdbEpisodeTable(keys, episodes, System.currentTimeMillis());
+        }
+    }
+
+    private static final Comparator<ImdbEpisodeDTO> EPISODE_ORDER = new Comparator<ImdbEpisodeDTO>() {
+        @Override
+        public int compare(ImdbEpisodeDTO o1, ImdbEpisodeDTO o2) {
+            return Integer.compare(o1.getEpisode(), o2.getEpisode());
+        }
+    };
+}
@@ -0,0 +1,229 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.util.Locale;
+
+/**
+ * Codec for IMDb ids packed into a primitive long.
+ *
+ * The packed value holds the prefix, the number of digits and the number of an id
+ * like <code>tt0111161</code> or <code>nm0000151</code>; so ids can be parsed, compared and
+ * formatted without creating any objects. A packed value of {@link #INVALID} denotes
+ * an unknown or malformed id.
+ *
+ * Layout of the packed value:
+ * <ul>
+ * <li>bits 0-35: the number</li>
+ * <li>bits 36-39: the count of digits, to preserve leading zeros</li>
+ * <li>bits 40-42: the type of the id</li>
+ * <li>bits 43-56: free for cache keys, see {@link #cacheKey(long, int, Locale)}</li>
+ * </ul>
+ */
+public final class ImdbId {
+
+    public static final long INVALID = 0L;
+
+    public static final int TYPE_TITLE = 1;
+    public static final int TYPE_PERSON = 2;
+    public static final int TYPE_COMPANY = 3;
+    public static final int TYPE_CHARACTER = 4;
+
+    private static final String[] PREFIXES = {null, "tt", "nm", "co", "ch"};
+    private static final int MIN_DIGITS = 7;
+    private static final int MAX_DIGITS = 10;
+    private static final int DIGITS_SHIFT = 36;
+    private static final int TYPE_SHIFT = 40;
+    private static final int LANGUAGE_SHIFT = 43;
+    private static final int CACHE_TYPE_SHIFT = 53;
+    private static final long NUMBER_MASK = (1L << DIGITS_SHIFT) - 1;
+    private static final long ID_MASK = (1L << LANGUAGE_SHIFT) - 1;
+
+    private ImdbId() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Parse a complete IMDb id.
+     *
+     * @param value the value to parse
+     * @return the packed id or {@link #INVALID}
+     */
+    public static long parse(CharSequence value) {
+        if (value == null) {
+            return INVALID;
+        }
+        return parse(value, 0, value.length());
+    }
+
+    /**
+     * Parse an IMDb id which starts at the given offset; parsing stops at the first
+     * character which is no digit, so this can be used for ids within URLs.
+     *
+     * @param value the value to parse
+     * @param offset the offset of the prefix
+     * @return the packed id or {@link #INVALID}
+     */
+    public static long parseAt(CharSequence value, int offset) {
+        if (value == null || offset < 0 || offset + 2 > value.length()) {
+            return INVALID;
+        }
+        int end = offset + 2;
+        while (end < value.length() && isDigit(value.charAt(end))) {
+            end++;
+        }
+        return parse(value, offset, end);
+    }
+
+    private static long parse(CharSequence value, int start, int end) {
+        final int digits = end - start - 2;
+        if (digits < MIN_DIGITS || digits > MAX_DIGITS) {
+            return INVALID;
+        }
+
+        final int type = getType(value.charAt(start), value.charAt(start + 1));
+        if (type == 0) {
+            return INVALID;
+        }
+
+        long number = 0;
+        for (int i = start + 2; i < end; i++) {
+            final char c = value.charAt(i);
+            if (!isDigit(c)) {
+                return INVALID;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return ((long) type << TYPE_SHIFT) | ((long) digits << DIGITS_SHIFT) | number;
+    }
+
+    private static int getType(char first, char second) {
+        for (int type = 1; type < PREFIXES.length; type++) {
+            if (PREFIXES[type].charAt(0) == first && PREFIXES[type].charAt(1) == second) {
+                return type;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Check if the value is a valid IMDb id.
+     *
+     * @param value the value to check
+     * @return true if valid, else false
+     */
+    public static boolean isValid(CharSequence value) {
+        return parse(value) != INVALID;
+    }
+
+    /**
+     * Check if the value is a valid IMDb id of the given type.
+     *
+     * @param value the value to check
+     * @param type the expected type
+     * @return true if valid, else false
+     */
+    public static boolean isValid(CharSequence value, int type) {
+        return getType(parse(value)) == type;
+    }
+
+    public static int getType(long imdbId) {
+        return (int) ((imdbId >>> TYPE_SHIFT) & 0x7);
+    }
+
+    public static long getNumber(long imdbId) {
+        return imdbId & NUMBER_MASK;
+    }
+
+    /**
+     * Append the textual form of a packed id.
+     *
+     * @param sb the string builder to append to
+     * @param imdbId the packed id
+     * @return the given string builder
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long imdbId) {
+        final int type = getType(imdbId);
+        if (imdbId == INVALID || type >= PREFIXES.length) {
+            return sb;
+        }
+
+        sb.append(PREFIXES[type]);
+        final long number = getNumber(imdbId);
+        final int digits = (int) ((imdbId >>> DIGITS_SHIFT) & 0xF);
+        long divisor = 1;
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            sb.append((char) ('0' + (number / divisor) % 10));
+        }
+        return sb;
+    }
+
+    /**
+     * Get the textual form of a packed id.
+     *
+     * @param imdbId the packed id
+     * @return the IMDb id or null if the id is invalid
+     */
+    public static String toString(long imdbId) {
+        if (imdbId == INVALID) {
+            return null;
+        }
+        return appendTo(new StringBuilder(12), imdbId).toString();
+    }
+
+    /**
+     * Build a cache key out of a packed id, a cache type and the language of a locale.
+     *
+     * @param imdbId the packed id
+     * @param cacheType the cache type between 0 and 15
+     * @param locale the locale; null for language-invariant entries
+     * @return the cache key or {@link #INVALID} if the id is invalid
+     */
+    public static long cacheKey(long imdbId, int cacheType, Locale locale) {
+        if (imdbId == INVALID) {
+            return INVALID;
+        }
+        return (imdbId & ID_MASK) | ((long) languageCode(locale) << LANGUAGE_SHIFT) | ((long) (cacheType & 0xF) << CACHE_TYPE_SHIFT);
+    }
+
+    private static int languageCode(Locale locale) {
+        final String language = locale == null ? null : locale.getLanguage();
+        if (language == null || language.length() != 2) {
+            return 0;
+        }
+        final int first = language.charAt(0) - 'a';
+        final int second = language.charAt(1) - 'a';
+        if (first < 0 || first > 25 || second < 0 || second > 25) {
+            return 0;
+        }
+        // 1-676 fits into 10 bits; 0 is for unknown languages
+        return 1 + first * 26 + second;
+    }
+}
\ No newline at end of file
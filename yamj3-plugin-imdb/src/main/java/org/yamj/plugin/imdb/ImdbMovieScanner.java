@@ -29,9 +29,9 @@ import static org.yamj.plugin.api.metadata.MetadataTools.parseToDate;
 
 import com.omertron.imdbapi.model.ImdbMovieDetails;
 import java.io.IOException;
-import java.util.Date;
-import java.util.Locale;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RunnableFuture;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
@@ -69,76 +69,136 @@ public final class ImdbMovieScanner extends AbstractImdbScanner implements Movie
         }
     }
 
-    private boolean updateMovie(IMovie movie, String imdbId, boolean throwTempError) throws IOException {
+    private boolean updateMovie(IMovie movie, final String imdbId, final boolean throwTempError) throws IOException {
         final Locale locale = localeService.getLocale();
-        ImdbMovieDetails movieDetails = imdbApiWrapper.getMovieDetails(imdbId, locale, throwTempError);
-        Map<String,Integer> top250 = imdbApiWrapper.getTop250(locale, throwTempError);
-        if (movieDetails == null || isNoValidImdbId(movieDetails.getImdbId()) || top250 == null) {
-            return false;
+        
+        // independent requests which may be executed in parallel
+        final RunnableFuture<ImdbMovieDetails> movieDetailsRequest = request(new Callable<ImdbMovieDetails>() {
+            @Override
+            public ImdbMovieDetails call() {
+                return imdbApiWrapper.getMovieDetails(imdbId, locale, throwTempError);
+            }
+        });
+        final RunnableFuture<String> xmlRequest = request(new Callable<String>() {
+            @Override
+            public String call() throws IOException {
+                return imdbApiWrapper.getMovieDetailsXML(imdbId, throwTempError);
+            }
+        });
+        final RunnableFuture<Set<String>> studiosRequest = request(new Callable<Set<String>>() {
+            @Override
+            public Set<String> call() {
+                return imdbApiWrapper.getProductionStudios(imdbId);
+            }
+        });
+        final RunnableFuture<ImdbCertifications> certificationsRequest = request(new Callable<ImdbCertifications>() {
+            @Override
+            public ImdbCertifications call() {
+                return imdbApiWrapper.getCertifications(imdbId);
+            }
+        });
+        final RunnableFuture<ImdbCastCrew> castCrewRequest = request(new Callable<ImdbCastCrew>() {
+            @Override
+            public ImdbCastCrew call() {
+                return imdbApiWrapper.getCastCrew(imdbId);
+            }
+        });
+        final RunnableFuture<ImdbAkaIndex> akaIndexRequest = request(new Callable<ImdbAkaIndex>() {
+            @Override
+            public ImdbAkaIndex call() {
+                return imdbApiWrapper.getAkaIndex(imdbId);
+            }
+        });
+        final RunnableFuture<String> awardsRequest;
+        if (configService.getBooleanProperty("imdb.movie.awards", false)) {
+            awardsRequest = request(new Callable<String>() {
+                @Override
+                public String call() {
+                    return imdbApiWrapper.getAwardsXML(imdbId);
+                }
+            });
+        } else {
+            awardsRequest = null;
         }
 
-        // check type change
-        if (!"feature".equals(movieDetails.getType())) {
-            LOG.warn("Movie '{}' determines a series and no movie", movie.getTitle());
-            return false;
-        }
+        try {
+            ImdbMovieDetails movieDetails = await(movieDetailsRequest);
+            if (movieDetails == null || isNoValidImdbId(movieDetails.getImdbId())) {
+                return false;
+            }
+
+            // check type change
+            if (!"feature".equals(movieDetails.getType())) {
+                LOG.warn("Movie '{}' determines a series and no movie", movie.getTitle());
+                return false;
+            }
         
-        // movie details XML is still needed for some parts
-        final String xml = imdbApiWrapper.getMovieDetailsXML(imdbId, throwTempError);
-        // get header tag
-        final String headerXml = HTMLTools.extractTag(xml, "<h1 class=\"header\">", "</h1>");
+            // movie details XML is still needed for some parts
+            final String xml = await(xmlRequest);
+            // get header tag
+            final String headerXml = HTMLTools.extractTag(xml, "<h1 class=\"header\">", "</h1>");
         
-        movie.setTitle(movieDetails.getTitle());
-        movie.setOriginalTitle(parseOriginalTitle(headerXml));
-        movie.setYear(movieDetails.getYear());
-        movie.setTagline(movieDetails.getTagline());
-        movie.setGenres(movieDetails.getGenres());
-        movie.setStudios(imdbApiWrapper.getProductionStudios(imdbId));
-        movie.setCountries(HTMLTools.extractTags(xml, "Country" + HTML_H4_END, HTML_DIV_END, "<a href=\"", HTML_A_END));
-        movie.setRating(parseRating(movieDetails.getRating()));
-
-        // RELEASE DATE
-        if (MapUtils.isNotEmpty(movieDetails.getReleaseDate())) {
-            final Date releaseDate = parseToDate(movieDetails.getReleaseDate().get(LITERAL_NORMAL));
-            movie.setRelease(null, releaseDate);
-        }
-
-        // PLOT
-        if (movieDetails.getBestPlot() != null) {
-            movie.setPlot(cleanPlot(movieDetails.getBestPlot().getSummary()));
-        }
-
-        // OUTLINE
-        if (movieDetails.getPlot() != null) {
-            movie.setOutline(cleanPlot(movieDetails.getPlot().getOutline()));
-        }
-
-        // QUOTE
-        if (movieDetails.getQuote() != null && CollectionUtils.isNotEmpty(movieDetails.getQuote().getLines())) {
-            movie.setQuote(cleanPlot(movieDetails.getQuote().getLines().get(0).getQuote()));
-        }
-
-        // TOP250
-        Integer rank = top250.get(imdbId);
-        if (rank != null) {
-            movie.setTopRank(rank.intValue());
-        }
-
-        // CERTIFICATIONS
-        imdbApiWrapper.parseCertifications(movie, locale, movieDetails);
-
-        // CAST/CREW
-        parseCastCrew(movie, imdbId);
-
-        // RELEASE INFO
-        parseReleasedTitles(movie, imdbId, locale);
-
-        // AWARDS
-        if (configService.getBooleanProperty("imdb.movie.awards", false)) {
-            imdbApiWrapper.parseAwards(movie);
-        }
+            movie.setTitle(movieDetails.getTitle());
+            movie.setOriginalTitle(parseOriginalTitle(headerXml));
+            movie.setYear(movieDetails.getYear());
+            movie.setTagline(movieDetails.getTagline());
+            movie.setGenres(movieDetails.getGenres());
+            movie.setStudios(await(studiosRequest));
+            movie.setCountries(HTMLTools.extractTags(xml, "Country" + HTML_H4_END, HTML_DIV_END, "<a href=\"", HTML_A_END));
+            int rating = parseRating(movieDetails.getRating());
+            if (rating <= 0) {
+                // fall back to the rating of the datasets
+                rating = imdbApiWrapper.getDatasetRating(imdbId);
+            }
+            movie.setRating(rating);
+
+            // RELEASE DATE
+            if (MapUtils.isNotEmpty(movieDetails.getReleaseDate())) {
+                final Date releaseDate = parseToDate(movieDetails.getReleaseDate().get(LITERAL_NORMAL));
+                movie.setRelease(null, releaseDate);
+            }
+
+            // PLOT
+            if (movieDetails.getBestPlot() != null) {
+                movie.setPlot(cleanPlot(movieDetails.getBestPlot().getSummary()));
+            }
+
+            // OUTLINE
+            if (movieDetails.getPlot() != null) {
+                movie.setOutline(cleanPlot(movieDetails.getPlot().getOutline()));
+            }
+
+            // QUOTE
+            if (movieDetails.getQuote() != null && CollectionUtils.isNotEmpty(movieDetails.getQuote().getLines())) {
+                movie.setQuote(cleanPlot(movieDetails.getQuote().getLines().get(0).getQuote()));
+            }
+
+            // TOP250
+            final int rank = imdbApiWrapper.getTop250Rank(imdbId);
+            if (rank > 0) {
+                movie.setTopRank(rank);
+            }
+
+            // CERTIFICATIONS
+            imdbApiWrapper.parseCertifications(movie, locale, movieDetails, await(certificationsRequest));
+
+            // CAST/CREW
+            parseCastCrew(movie, imdbId, await(castCrewRequest));
+
+            // RELEASE INFO
+            parseReleasedTitles(movie, locale, await(akaIndexRequest));
+
+            // AWARDS
+            if (awardsRequest != null) {
+                imdbApiWrapper.parseAwards(movie, await(awardsRequest));
+            }
         
-        return true;
+            return true;
+        } finally {
+            // cancel requests which are not needed anymore
+            cancel(movieDetailsRequest, xmlRequest, studiosRequest, certificationsRequest,
+                   castCrewRequest, akaIndexRequest, awardsRequest);
+        }
     }
     
 }
@@ -0,0 +1,156 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Captures fragments of a page while it's read.
+ *
+ * Each fragment is given by a start and an end marker and is captured including both markers;
+ * the captured fragments are concatenated in the order they appear on the page. Reading stops
+ * as soon as all fragments have been captured, so the rest of the page is never read.
+ */
+public final class ImdbPageFragments {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final String[] starts;
+    private final String[] ends;
+    private final int keepChars;
+
+    /**
+     * Create the fragments.
+     *
+     * @param markers pairs of start and end markers
+     */
+    public ImdbPageFragments(String... markers) {
+        if (markers.length == 0 || markers.length % 2 != 0) {
+            throw new IllegalArgumentException("Markers must be given as pairs of start and end");
+        }
+        
+        final int count = markers.length / 2;
+        this.starts = new String[count];
+        this.ends = new String[count];
+        int maxStart = 0;
+        for (int i = 0; i < count; i++) {
+            starts[i] = markers[2 * i];
+            ends[i] = markers[2 * i + 1];
+            maxStart = Math.max(maxStart, starts[i].length());
+        }
+        // a start marker may be split over two reads
+        this.keepChars = maxStart - 1;
+    }
+
+    /**
+     * Read the fragments from a reader.
+     *
+     * @param reader the reader
+     * @return the result
+     * @throws IOException if reading failed
+     */
+    public Result read(Reader reader) throws IOException {
+        final StringBuilder content = new StringBuilder();
+        final StringBuilder window = new StringBuilder(2 * BUFFER_SIZE);
+        final boolean[] captured = new boolean[starts.length];
+        final char[] buffer = new char[BUFFER_SIZE];
+        int remaining = starts.length;
+        int capturing = -1;
+        int searchFrom = 0;
+        int read;
+        
+        while (remaining > 0 && (read = reader.read(buffer)) != -1) {
+            window.append(buffer, 0, read);
+
+            boolean progress = true;
+            while (progress && remaining > 0) {
+                progress = false;
+                
+                if (capturing < 0) {
+                    // find the next start marker
+                    int first = -1;
+                    int firstIndex = -1;
+                    for (int i = 0; i < starts.length; i++) {
+                        if (!captured[i]) {
+                            final int index = window.indexOf(starts[i]);
+                            if (index >= 0 && (firstIndex < 0 || index < firstIndex)) {
+                                first = i;
+                                firstIndex = index;
+                            }
+                        }
+                    }
+                    
+                    if (first >= 0) {
+                        window.delete(0, firstIndex);
+                        capturing = first;
+                        searchFrom = starts[first].length();
+                        progress = true;
+                    } else if (window.length() > keepChars) {
+                        window.delete(0, window.length() - keepChars);
+                    }
+                } else {
+                    final int index = window.indexOf(ends[capturing], searchFrom);
+                    if (index >= 0) {
+                        final int end = index + ends[capturing].length();
+                        content.append(window, 0, end);
+                        window.delete(0, end);
+                        captured[capturing] = true;
+                        capturing = -1;
+                        remaining--;
+                        progress = true;
+                    } else {
+                        // an end marker may be split over two reads
+                        searchFrom = Math.max(searchFrom, window.length() - ends[capturing].length() + 1);
+                    }
+                }
+            }
+        }
+        
+        return new Result(content.toString(), remaining == 0);
+    }
+
+    public static final class Result {
+
+        private final String content;
+        private final boolean complete;
+
+        public Result(String content, boolean complete) {
+            this.content = content;
+            this.complete = complete;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        /**
+         * Indicates if all fragments have been captured before the end of the page.
+         *
+         * @return true if all fragments have been captured
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
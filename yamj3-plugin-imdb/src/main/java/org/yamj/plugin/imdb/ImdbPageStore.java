@@ -0,0 +1,339 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.yamj.api.common.tools.ResponseTools.isOK;
+import static org.yamj.plugin.api.Constants.UTF8;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yamj.api.common.http.CommonHttpClient;
+import org.yamj.api.common.http.DigestedResponse;
+
+/**
+ * Store for IMDb title pages.
+ *
+ * Pages are kept GZIP compressed in a bounded memory tier and in a disk tier which
+ * survives plugin restarts. Stored pages are revalidated with conditional requests and
+ * pruned from disk if they haven't been validated for the maximum disk age. Only the
+ * given fragments of a page are read and stored.
+ */
+public class ImdbPageStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImdbPageStore.class);
+    private static final int FILE_VERSION = 2;
+    private static final String FILE_EXTENSION = ".page";
+
+    private final CommonHttpClient httpClient;
+    private final ImdbRateGovernor rateGovernor;
+    private final File directory;
+    private final long revalidateMillis;
+    private final long maxDiskAgeMillis;
+    private final Map<String, StoredPage> memory;
+
+    public ImdbPageStore(CommonHttpClient httpClient, ImdbRateGovernor rateGovernor, File directory, final int maxMemoryEntries, long revalidateMillis, long maxDiskAgeMillis) {
+        this.httpClient = httpClient;
+        this.rateGovernor = rateGovernor;
+        this.directory = directory;
+        this.revalidateMillis = revalidateMillis;
+        this.maxDiskAgeMillis = maxDiskAgeMillis;
+        this.memory = new LinkedHashMap<String, StoredPage>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredPage> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+    }
+
+    /**
+     * Schedule the pruning of the disk tier.
+     *
+     * @param scheduler the scheduler to use
+     * @param pruneMillis the prune interval in milliseconds
+     */
+    public void start(ScheduledExecutorService scheduler, long pruneMillis) {
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                prune();
+            }
+        }, pruneMillis, pruneMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the fragments of the page for an IMDb id.
+     *
+     * The page is read only until all fragments have been captured; then the connection is aborted.
+     *
+     * @param imdbId the IMDb id
+     * @param url the URL of the page
+     * @param fragments the fragments to capture
+     * @return the response; a not modified page results in an OK response with the stored content
+     * @throws IOException if the request failed
+     */
+    public DigestedResponse getPage(String imdbId, String url, ImdbPageFragments fragments) throws IOException {
+        if (!ImdbId.isValid(imdbId, ImdbId.TYPE_TITLE)) {
+            // never use unknown ids for file names
+            return requestPage(new HttpGet(url), fragments).response;
+        }
+        
+        StoredPage page = getStoredPage(imdbId);
+        if (page != null && (System.currentTimeMillis() - page.validated) < revalidateMillis) {
+            LOG.trace("Serve page for {} from store", imdbId);
+            return new DigestedResponse(HttpStatus.SC_OK, page.getContent());
+        }
+
+        HttpGet httpGet = new HttpGet(url);
+        if (page != null) {
+            if (page.etag != null) {
+                httpGet.setHeader("If-None-Match", page.etag);
+            }
+            if (page.lastModified != null) {
+                httpGet.setHeader("If-Modified-Since", page.lastModified);
+            }
+        }
+
+        final FetchedPage fetched = requestPage(httpGet, fragments);
+        final int statusCode = fetched.response.getStatusCode();
+        if (page != null && statusCode == HttpStatus.SC_NOT_MODIFIED) {
+            LOG.trace("Page for {} not modified", imdbId);
+            page = new StoredPage(page.compressed, page.etag, page.lastModified, System.currentTimeMillis());
+            storePage(imdbId, page);
+            return new DigestedResponse(HttpStatus.SC_OK, page.getContent());
+        }
+
+        final String content = fetched.response.getContent();
+        if (isOK(statusCode) && content != null) {
+            page = new StoredPage(compress(content), fetched.etag, fetched.lastModified, System.currentTimeMillis());
+            storePage(imdbId, page);
+        }
+        return fetched.response;
+    }
+
+    private FetchedPage requestPage(HttpGet httpGet, ImdbPageFragments fragments) throws IOException {
+        rateGovernor.acquire(ImdbRateGovernor.Endpoint.TITLE_PAGE);
+        HttpResponse response = httpClient.execute(httpGet);
+        try {
+            final int statusCode = response.getStatusLine().getStatusCode();
+            rateGovernor.update(ImdbRateGovernor.Endpoint.TITLE_PAGE, statusCode);
+            final HttpEntity entity = response.getEntity();
+            if (!isOK(statusCode) || entity == null) {
+                return new FetchedPage(new DigestedResponse(statusCode, null), null, null);
+            }
+
+            final ImdbPageFragments.Result result;
+            try (Reader reader = new InputStreamReader(entity.getContent(), UTF8)) {
+                result = fragments.read(reader);
+                if (result.isComplete()) {
+                    // no need to read the rest of the page
+                    httpGet.abort();
+                }
+            }
+            return new FetchedPage(new DigestedResponse(statusCode, result.getContent()), getHeader(response, "ETag"), getHeader(response, "Last-Modified"));
+        } finally {
+            EntityUtils.consumeQuietly(response.getEntity());
+        }
+    }
+
+    private static String getHeader(HttpResponse response, String name) {
+        final Header header = response.getFirstHeader(name);
+        return header == null ? null : StringUtils.trimToNull(header.getValue());
+    }
+
+    private StoredPage getStoredPage(String imdbId) {
+        synchronized (memory) {
+            StoredPage page = memory.get(imdbId);
+            if (page != null) {
+                return page;
+            }
+        }
+
+        StoredPage page = readPage(imdbId);
+        if (page != null) {
+            synchronized (memory) {
+                memory.put(imdbId, page);
+            }
+        }
+        return page;
+    }
+
+    private void storePage(String imdbId, StoredPage page) {
+        synchronized (memory) {
+            memory.put(imdbId, page);
+        }
+        writePage(imdbId, page);
+    }
+
+    /**
+     * Delete the stored pages which haven't been validated for the maximum disk age.
+     *
+     * @return the number of deleted pages
+     */
+    public int prune() {
+        final File[] subDirectories = directory.listFiles();
+        if (subDirectories == null) {
+            return 0;
+        }
+
+        // the file is rewritten on every validation
+        final long expired = System.currentTimeMillis() - maxDiskAgeMillis;
+        int deleted = 0;
+        for (File subDirectory : subDirectories) {
+            final File[] files = subDirectory.listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                if (file.lastModified() < expired && file.delete()) {
+                    deleted++;
+                }
+            }
+        }
+        LOG.debug("Pruned {} stored pages", deleted);
+        return deleted;
+    }
+
+    private File getFile(String imdbId) {
+        // distribute files over sub directories by the last digits of the id
+        final String subDirectory = imdbId.substring(Math.max(0, imdbId.length() - 2));
+        return new File(new File(directory, subDirectory), imdbId + FILE_EXTENSION);
+    }
+
+    private StoredPage readPage(String imdbId) {
+        final File file = getFile(imdbId);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            final long validated = in.readLong();
+            final String etag = StringUtils.trimToNull(in.readUTF());
+            final String lastModified = StringUtils.trimToNull(in.readUTF());
+            final byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+            return new StoredPage(compressed, etag, lastModified, validated);
+        } catch (IOException ex) {
+            LOG.warn("Failed to read stored page for {}: {}", imdbId, ex.getMessage());
+            LOG.trace("Page store error", ex);
+            return null;
+        }
+    }
+
+    private void writePage(String imdbId, StoredPage page) {
+        final File file = getFile(imdbId);
+        try {
+            final File parent = file.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Failed to create directory " + parent);
+            }
+
+            // write to temporary file first to never leave a partial page behind
+            final File tempFile = File.createTempFile(imdbId, ".tmp", parent);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeLong(page.validated);
+                out.writeUTF(StringUtils.trimToEmpty(page.etag));
+                out.writeUTF(StringUtils.trimToEmpty(page.lastModified));
+                out.writeInt(page.compressed.length);
+                out.write(page.compressed);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            LOG.warn("Failed to store page for {}: {}", imdbId, ex.getMessage());
+            LOG.trace("Page store error", ex);
+        }
+    }
+
+    private static byte[] compress(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length() / 4);
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), UTF8)) {
+            writer.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String decompress(byte[] compressed) throws IOException {
+        StringBuilder sb = new StringBuilder(compressed.length * 4);
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(compressed)), UTF8)) {
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, read);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class FetchedPage {
+
+        private final DigestedResponse response;
+        private final String etag;
+        private final String lastModified;
+
+        public FetchedPage(DigestedResponse response, String etag, String lastModified) {
+            this.response = response;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final class StoredPage {
+
+        private final byte[] compressed;
+        private final String etag;
+        private final String lastModified;
+        private final long validated;
+
+        public StoredPage(byte[] compressed, String etag, String lastModified, long validated) {
+            this.compressed = compressed;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validated = validated;
+        }
+
+        public String getContent() throws IOException {
+            return decompress(compressed);
+        }
+    }
+}
\ No newline at end of file
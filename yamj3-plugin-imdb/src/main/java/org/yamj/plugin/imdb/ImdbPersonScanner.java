@@ -31,6 +31,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RunnableFuture;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -39,7 +41,6 @@ import org.yamj.plugin.api.metadata.*;
 import org.yamj.plugin.api.model.IPerson;
 import org.yamj.plugin.api.model.type.JobType;
 import org.yamj.plugin.api.model.type.ParticipationType;
-import org.yamj.plugin.api.web.HTMLTools;
 import ro.fortsoft.pf4j.Extension;
 
 @Extension
@@ -71,9 +72,27 @@ public final class ImdbPersonScanner extends AbstractImdbScanner implements Pers
         }
     }
 
-    private boolean updatePerson(IPerson person, String imdbId, boolean throwTempError) throws IOException {
-        Locale locale = localeService.getLocale();
-        ImdbPerson imdbPerson = imdbApiWrapper.getPerson(imdbId, locale, throwTempError);
+    private boolean updatePerson(IPerson person, final String imdbId, final boolean throwTempError) throws IOException {
+        final Locale locale = localeService.getLocale();
+
+        // start the requests; they will run concurrently if parallel requests are enabled
+        final RunnableFuture<ImdbPerson> personRequest = request(new Callable<ImdbPerson>() {
+            @Override
+            public ImdbPerson call() {
+                return imdbApiWrapper.getPerson(imdbId, locale, throwTempError);
+            }
+        });
+        if (configService.getBooleanProperty("imdb.person.filmography.prefetch", false)) {
+            // not awaited; a following filmography scan shares the cached result
+            request(new Callable<List<ImdbFilmography>>() {
+                @Override
+                public List<ImdbFilmography> call() {
+                    return imdbApiWrapper.getFilmopgraphy(imdbId, locale, false);
+                }
+            });
+        }
+
+        final ImdbPerson imdbPerson = await(personRequest);
         if (imdbPerson == null || StringUtils.isBlank(imdbPerson.getActorId())) {
             return false;
         }
@@ -81,18 +100,15 @@ public final class ImdbPersonScanner extends AbstractImdbScanner implements Pers
         person.setName(imdbPerson.getName());
         person.setBirthName(imdbPerson.getRealName());
         
-        final String apiBio = MetadataTools.cleanBiography(imdbPerson.getBiography());
+        // the shared details may carry the biography of another locale
+        final String apiBio = MetadataTools.cleanBiography(imdbApiWrapper.getPersonApiBiography(imdbId, locale, throwTempError));
         if (StringUtils.isNotBlank(apiBio)) {
             person.setBiography(apiBio);
         } else {
-            // try biography from web site
-            final String bio = imdbApiWrapper.getPersonBioXML(imdbId, throwTempError);
-            if (bio.contains(">Mini Bio (1)</h4>")) {
-                String biography = HTMLTools.extractTag(bio, ">Mini Bio (1)</h4>", "<em>- IMDb Mini Biography");
-                if (StringUtils.isBlank(biography) && bio.contains("<a name=\"trivia\">")) {
-                    biography = HTMLTools.extractTag(bio, ">Mini Bio (1)</h4>", "<a name=\"trivia\">");
-                }
-                person.setBiography(HTMLTools.removeHtmlTags(biography));
+            // try biography from web site; only requested if the API has none
+            final String biography = imdbApiWrapper.getPersonBiography(imdbId, throwTempError);
+            if (StringUtils.isNotBlank(biography)) {
+                person.setBiography(biography);
             }
         }
         
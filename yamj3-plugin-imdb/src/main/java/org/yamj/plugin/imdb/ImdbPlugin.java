@@ -25,13 +25,17 @@ package org.yamj.plugin.imdb;
 import static org.yamj.plugin.api.Constants.SOURCE_IMDB;
 
 import com.omertron.imdbapi.ImdbApi;
+import java.io.File;
 import java.io.InputStream;
 import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.config.PersistenceConfiguration;
 import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamj.api.common.http.CommonHttpClient;
@@ -49,6 +53,11 @@ public class ImdbPlugin extends Plugin implements NeedsConfigService, NeedsLocal
     private static final Logger LOG = LoggerFactory.getLogger(ImdbPlugin.class);
     private static ImdbApiWrapper imdbApiWrapper;
     private static ImdbSearchEngine imdbSearchEngine;
+    private static ImdbSearchCache imdbSearchCache;
+    private static ImdbRateGovernor imdbRateGovernor;
+    private static ExecutorService executorService;
+    private static ScheduledExecutorService scheduledExecutorService;
+    private static ScheduledExecutorService datasetExecutorService;
     private PluginConfigService configService;
     private PluginLocaleService localeService;
     private CommonHttpClient httpClient;
@@ -77,18 +86,26 @@ public class ImdbPlugin extends Plugin implements NeedsConfigService, NeedsLocal
     public void start() throws PluginException {
         LOG.trace("Start TheMovieDbPlugin");
         
+        // load properties
+        try (InputStream stream = getClass().getResourceAsStream("/imdb.plugin.properties")) {
+            Properties props = new Properties();
+            props.load(stream);
+            configService.pluginConfiguration(props);
+        } catch (Exception ex) {
+            throw new PluginException("Failed to load imdb properties", ex);
+        }
+        
         try {
             // create API
             ImdbApi imdbApi = new ImdbApi(httpClient);
-            imdbSearchEngine = new ImdbSearchEngine(configService, localeService, httpClient);
             
             // create cache
             cacheManager = CacheManager.getInstance();
             Cache cache = new Cache(new CacheConfiguration().name(SOURCE_IMDB)
                             .eternal(false)
-                            .maxEntriesLocalHeap(200)
+                            .maxEntriesLocalHeap(configService.getIntProperty("imdb.cache.memory.entries", 2000))
                             .timeToIdleSeconds(0)
-                            .timeToLiveSeconds(1800)
+                            .timeToLiveSeconds(configService.getIntProperty("imdb.cache.ttl.seconds", 1800))
                             .persistence(new PersistenceConfiguration().strategy(PersistenceConfiguration.Strategy.NONE))
                             .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU)
                             .statistics(false));
@@ -96,19 +113,52 @@ public class ImdbPlugin extends Plugin implements NeedsConfigService, NeedsLocal
             // normally the YAMJ cache manager will be used
             cacheManager.addCache(cache);
             
-            imdbApiWrapper = new ImdbApiWrapper(imdbApi, configService, localeService, httpClient, cache);
+            // create rate governor shared by all requests to IMDb
+            imdbRateGovernor = new ImdbRateGovernor(
+                            configService.getIntProperty("imdb.rate.api.per.minute", 300),
+                            configService.getIntProperty("imdb.rate.title.per.minute", 120),
+                            configService.getIntProperty("imdb.rate.search.per.minute", 60),
+                            configService.getIntProperty("imdb.rate.name.per.minute", 120));
+            
+            // create store for title pages which is pruned in background
+            scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(new ImdbThreadFactory("imdb-scheduler-"));
+            ImdbPageStore pageStore = new ImdbPageStore(httpClient, imdbRateGovernor, new File(getDataDirectory(), "pages"),
+                            configService.getIntProperty("imdb.pagestore.memory.entries", 250),
+                            configService.getLongProperty("imdb.pagestore.revalidate.seconds", 600) * 1000,
+                            TimeUnit.DAYS.toMillis(configService.getIntProperty("imdb.pagestore.disk.days", 30)));
+            pageStore.start(scheduledExecutorService, TimeUnit.DAYS.toMillis(1));
+            
+            // create Top250 index which is refreshed in background
+            ImdbTop250Index top250Index = new ImdbTop250Index(imdbApi, new File(getDataDirectory(), "top250.idx"), imdbRateGovernor,
+                            TimeUnit.HOURS.toMillis(configService.getIntProperty("imdb.top250.refresh.hours", 24)),
+                            TimeUnit.MINUTES.toMillis(configService.getIntProperty("imdb.top250.retry.minutes", 5)));
+            top250Index.start(scheduledExecutorService);
+            
+            // create search cache which is saved in background
+            imdbSearchCache = new ImdbSearchCache(new File(getDataDirectory(), "search.cache"),
+                            configService.getIntProperty("imdb.search.cache.entries", 100000),
+                            TimeUnit.DAYS.toMillis(configService.getIntProperty("imdb.search.cache.days", 30)),
+                            TimeUnit.HOURS.toMillis(configService.getIntProperty("imdb.search.cache.negative.hours", 24)));
+            imdbSearchCache.start(scheduledExecutorService, TimeUnit.MINUTES.toMillis(5));
+            
+            // create index of the IMDb datasets which are imported in background if a directory is configured
+            final String datasetDirectory = configService.getProperty("imdb.dataset.directory");
+            ImdbDatasetIndex datasetIndex = new ImdbDatasetIndex(new File(StringUtils.trimToEmpty(datasetDirectory)), new File(getDataDirectory(), "dataset"));
+            if (StringUtils.isNotBlank(datasetDirectory)) {
+                // own thread, so that a long import doesn't hold up the Top250 and search cache tasks
+                datasetExecutorService = Executors.newSingleThreadScheduledExecutor(new ImdbThreadFactory("imdb-dataset-"));
+                datasetIndex.start(datasetExecutorService, TimeUnit.HOURS.toMillis(configService.getIntProperty("imdb.dataset.refresh.hours", 24)));
+            }
+            
+            imdbSearchEngine = new ImdbSearchEngine(configService, localeService, httpClient, imdbSearchCache, datasetIndex, imdbRateGovernor);
+            imdbApiWrapper = new ImdbApiWrapper(imdbApi, configService, localeService, httpClient, cache, pageStore, top250Index, datasetIndex, imdbRateGovernor);
         } catch (Exception ex) {
             throw new PluginException("Failed to create IMDb api", ex);
         }
         
-        // load properties
-        try (InputStream stream = getClass().getResourceAsStream("/imdb.plugin.properties")) {
-            Properties props = new Properties();
-            props.load(stream);
-            configService.pluginConfiguration(props);
-        } catch (Exception ex) {
-            throw new PluginException("Failed to load imdb properties", ex);
-        }
+        // create executor for parallel requests
+        final int threads = Math.max(1, configService.getIntProperty("imdb.parallel.threads", 4));
+        executorService = Executors.newFixedThreadPool(threads, new ImdbThreadFactory("imdb-request-"));
     }
 
     @Override
@@ -116,6 +166,34 @@ public class ImdbPlugin extends Plugin implements NeedsConfigService, NeedsLocal
         LOG.trace("Stop TheMovieDbPlugin");
         
         cacheManager.removeCache(SOURCE_IMDB);
+        
+        if (imdbSearchEngine != null) {
+            LOG.info("IMDb search fast path resolved {} of {} lookups", imdbSearchEngine.getFastPathCount(), imdbSearchEngine.getLookupCount());
+        }
+        if (imdbRateGovernor != null) {
+            LOG.info("IMDb rates: {}", imdbRateGovernor);
+        }
+        
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdownNow();
+        }
+        if (datasetExecutorService != null) {
+            datasetExecutorService.shutdownNow();
+        }
+        if (imdbSearchCache != null) {
+            imdbSearchCache.save();
+        }
+    }
+    
+    private File getDataDirectory() {
+        final String directory = configService.getProperty("imdb.data.directory");
+        if (StringUtils.isNotBlank(directory)) {
+            return new File(directory);
+        }
+        return new File(System.getProperty("yamj3.home", "."), "plugins" + File.separator + "data" + File.separator + "imdb");
     }
     
     public static ImdbApiWrapper getImdbApiWrapper() {
@@ -125,4 +203,29 @@ public class ImdbPlugin extends Plugin implements NeedsConfigService, NeedsLocal
     public static ImdbSearchEngine getImdbSearchEngine() {
         return imdbSearchEngine;
     }
+    
+    public static ImdbRateGovernor getImdbRateGovernor() {
+        return imdbRateGovernor;
+    }
+    
+    public static ExecutorService getExecutorService() {
+        return executorService;
+    }
+    
+    private static class ImdbThreadFactory implements ThreadFactory {
+        
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        public ImdbThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
\ No newline at end of file
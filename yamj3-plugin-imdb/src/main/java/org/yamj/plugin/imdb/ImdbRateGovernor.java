@@ -0,0 +1,238 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client-side rate governor for the IMDb endpoints.
+ *
+ * Every endpoint has its own token bucket. If IMDb answers with 429 (too many requests) or
+ * 503 (service unavailable), the rate of the endpoint is halved and requests are paused for
+ * a backoff time which doubles while throttling continues. Afterwards the rate recovers
+ * gradually up to the configured rate.
+ */
+public class ImdbRateGovernor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImdbRateGovernor.class);
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(60);
+    // part of the configured rate which is recovered per second
+    private static final double RECOVERY_PER_SECOND = 0.05;
+    // the rate never drops below this part of the configured rate
+    private static final double MIN_RATE_FACTOR = 1.0 / 16;
+
+    public enum Endpoint {
+        APP_API,
+        TITLE_PAGE,
+        SEARCH,
+        NAME_PAGE
+    }
+
+    private final Map<Endpoint, Bucket> buckets = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Create a governor.
+     *
+     * @param requestsPerMinute the configured requests per minute for each endpoint in order of
+     *        {@link Endpoint}; not positive values disable the throttling of an endpoint
+     */
+    public ImdbRateGovernor(int... requestsPerMinute) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            final int rate = endpoint.ordinal() < requestsPerMinute.length ? requestsPerMinute[endpoint.ordinal()] : 0;
+            buckets.put(endpoint, new Bucket(rate / 60.0));
+        }
+    }
+
+    /**
+     * Wait until a request to an endpoint may be executed.
+     *
+     * @param endpoint the endpoint
+     */
+    public void acquire(Endpoint endpoint) {
+        try {
+            buckets.get(endpoint).acquire();
+        } catch (InterruptedException ex) {
+            // let the request run; the caller will notice the interrupt
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Update the governor with the status of a response.
+     *
+     * @param endpoint the endpoint
+     * @param statusCode the status code of the response
+     */
+    public void update(Endpoint endpoint, int statusCode) {
+        if (statusCode == SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+            final double rate = buckets.get(endpoint).throttle();
+            LOG.debug("IMDb endpoint {} answered with {}; rate reduced to {} requests per minute", endpoint, statusCode, Math.round(rate * 60));
+        }
+    }
+
+    /**
+     * Get the current rate of an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the requests per minute; -1 if not throttled
+     */
+    public int getRate(Endpoint endpoint) {
+        final double rate = buckets.get(endpoint).getRate();
+        return rate < 0 ? -1 : (int) Math.round(rate * 60);
+    }
+
+    /**
+     * Get the number of requests waiting for an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the number of waiting requests
+     */
+    public int getQueueDepth(Endpoint endpoint) {
+        return buckets.get(endpoint).getWaiting();
+    }
+
+    /**
+     * Get the number of 429 and 503 responses of an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the number of throttled responses
+     */
+    public long getThrottleCount(Endpoint endpoint) {
+        return buckets.get(endpoint).getThrottles();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ImdbRateGovernor[");
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (endpoint.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(endpoint).append(": rate=").append(getRate(endpoint))
+                .append("/min, queue=").append(getQueueDepth(endpoint))
+                .append(", throttled=").append(getThrottleCount(endpoint));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static final class Bucket {
+
+        private final double maxRate;
+        private double rate;
+        private double tokens;
+        private long refilled;
+        private long blockedUntil;
+        private long backoff;
+        private int waiting;
+        private long throttles;
+
+        public Bucket(double maxRate) {
+            this.maxRate = maxRate;
+            this.rate = maxRate;
+            this.tokens = 1;
+            this.refilled = System.nanoTime();
+            this.blockedUntil = refilled;
+        }
+
+        public void acquire() throws InterruptedException {
+            if (maxRate <= 0) {
+                return;
+            }
+            
+            synchronized (this) {
+                waiting++;
+            }
+            try {
+                while (true) {
+                    final long waitNanos;
+                    synchronized (this) {
+                        final long now = System.nanoTime();
+                        refill(now);
+                        if (now - blockedUntil >= 0 && tokens >= 1) {
+                            tokens--;
+                            return;
+                        }
+                        waitNanos = Math.max(blockedUntil - now, (long) ((1 - tokens) / rate * 1e9));
+                    }
+                    TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, 1000000L));
+                }
+            } finally {
+                synchronized (this) {
+                    waiting--;
+                }
+            }
+        }
+
+        private void refill(long now) {
+            final double seconds = (now - refilled) / 1e9;
+            refilled = now;
+            if (now - blockedUntil < 0) {
+                // no refill or recovery during backoff
+                return;
+            }
+            
+            if (rate < maxRate) {
+                rate = Math.min(maxRate, rate + maxRate * RECOVERY_PER_SECOND * seconds);
+                if (rate == maxRate) {
+                    backoff = 0;
+                }
+            }
+            // allow a burst of one second
+            tokens = Math.min(Math.max(1, rate), tokens + rate * seconds);
+        }
+
+        public synchronized double throttle() {
+            throttles++;
+            if (maxRate <= 0) {
+                return -1;
+            }
+            
+            final long now = System.nanoTime();
+            refill(now);
+            rate = Math.max(maxRate * MIN_RATE_FACTOR, rate / 2);
+            tokens = 0;
+            backoff = backoff == 0 ? MIN_BACKOFF_NANOS : Math.min(MAX_BACKOFF_NANOS, backoff * 2);
+            blockedUntil = now + backoff;
+            return rate;
+        }
+
+        public synchronized double getRate() {
+            return maxRate <= 0 ? -1 : rate;
+        }
+
+        public synchronized int getWaiting() {
+            return waiting;
+        }
+
+        public synchronized long getThrottles() {
+            return throttles;
+        }
+    }
+}
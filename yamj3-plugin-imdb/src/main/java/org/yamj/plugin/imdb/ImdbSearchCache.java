@@ -0,0 +1,239 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache for resolved IMDb ids.
+ *
+ * Holds positive entries for resolved ids and negative entries for searches without a
+ * result; negative entries expire earlier, so that unresolved titles are searched again
+ * once per refresh window only. The least recently used entries are dropped if the cache
+ * exceeds its maximum size.
+ */
+public class ImdbSearchCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImdbSearchCache.class);
+    private static final int FILE_VERSION = 1;
+
+    /**
+     * Result of a lookup if there is no valid entry in the cache.
+     */
+    public static final long MISS = -1L;
+
+    private final File file;
+    private final long positiveMillis;
+    private final long negativeMillis;
+    private final Map<String, Entry> entries;
+    private volatile boolean dirty;
+
+    public ImdbSearchCache(File file, final int maxEntries, long positiveMillis, long negativeMillis) {
+        this.file = file;
+        this.positiveMillis = positiveMillis;
+        this.negativeMillis = negativeMillis;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Load the persisted entries and schedule the saving of the cache.
+     *
+     * @param scheduler the scheduler to use
+     * @param saveMillis the save interval in milliseconds
+     */
+    public void start(ScheduledExecutorService scheduler, long saveMillis) {
+        load();
+
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                save();
+            }
+        }, saveMillis, saveMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static String titleKey(String title, int year, String category) {
+        return new StringBuilder("t|").append(category).append('|').append(Math.max(year, 0)).append('|').append(normalize(title)).toString();
+    }
+
+    public static String personKey(String name, String movieId) {
+        return new StringBuilder("p|").append(StringUtils.trimToEmpty(movieId)).append('|').append(normalize(name)).toString();
+    }
+
+    private static String normalize(String value) {
+        return StringUtils.normalizeSpace(StringUtils.trimToEmpty(value)).toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Get the packed IMDb id for a key.
+     *
+     * @param key the key
+     * @return the packed id, {@link ImdbId#INVALID} for a negative entry or {@link #MISS}
+     */
+    public long get(String key) {
+        synchronized (entries) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                return MISS;
+            }
+            if (entry.expires < System.currentTimeMillis()) {
+                entries.remove(key);
+                return MISS;
+            }
+            return entry.imdbId;
+        }
+    }
+
+    /**
+     * Store a resolved IMDb id; an invalid id is stored as negative entry.
+     *
+     * @param key the key
+     * @param imdbId the resolved IMDb id, may be null
+     */
+    public void put(String key, String imdbId) {
+        final long packed = ImdbId.parse(imdbId);
+        final long ttl = packed == ImdbId.INVALID ? negativeMillis : positiveMillis;
+        if (ttl > 0) {
+            synchronized (entries) {
+                entries.put(key, new Entry(packed, System.currentTimeMillis() + ttl));
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Get the number of entries, including expired entries which are not yet removed.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void load() {
+        if (!file.isFile()) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return;
+            }
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                final String key = in.readUTF();
+                final long imdbId = in.readLong();
+                final long expires = in.readLong();
+                if (expires >= now) {
+                    synchronized (entries) {
+                        entries.put(key, new Entry(imdbId, expires));
+                    }
+                }
+            }
+            LOG.debug("Loaded {} search cache entries", size());
+        } catch (IOException ex) {
+            LOG.warn("Failed to load search cache: {}", ex.getMessage());
+            LOG.trace("Search cache error", ex);
+        }
+    }
+
+    /**
+     * Save the cache if it has been changed.
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        try {
+            final File parent = file.getAbsoluteFile().getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Failed to create directory " + parent);
+            }
+
+            final long now = System.currentTimeMillis();
+            final File tempFile = File.createTempFile(file.getName(), ".tmp", parent);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                final Map<String, Entry> snapshot;
+                synchronized (entries) {
+                    snapshot = new HashMap<>(entries);
+                }
+                int size = 0;
+                for (Entry entry : snapshot.values()) {
+                    if (entry.expires >= now) {
+                        size++;
+                    }
+                }
+
+                out.writeInt(FILE_VERSION);
+                out.writeInt(size);
+                for (Map.Entry<String, Entry> mapEntry : snapshot.entrySet()) {
+                    final Entry entry = mapEntry.getValue();
+                    if (entry.expires >= now) {
+                        out.writeUTF(mapEntry.getKey());
+                        out.writeLong(entry.imdbId);
+                        out.writeLong(entry.expires);
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            dirty = true;
+            LOG.warn("Failed to save search cache: {}", ex.getMessage());
+            LOG.trace("Search cache error", ex);
+        }
+    }
+
+    private static final class Entry {
+
+        private final long imdbId;
+        private final long expires;
+
+        public Entry(long imdbId, long expires) {
+            this.imdbId = imdbId;
+            this.expires = expires;
+        }
+    }
+}
\ No newline at end of file
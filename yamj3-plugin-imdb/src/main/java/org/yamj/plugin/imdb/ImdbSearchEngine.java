@@ -26,12 +26,20 @@ import static org.yamj.api.common.tools.ResponseTools.isNotOK;
 import static org.yamj.api.common.tools.ResponseTools.isOK;
 import static org.yamj.api.common.tools.ResponseTools.isTemporaryError;
 import static org.yamj.plugin.api.Constants.ALL;
+import static org.yamj.plugin.api.Constants.UTF8;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamj.api.common.http.CommonHttpClient;
@@ -52,17 +60,26 @@ public class ImdbSearchEngine {
     private static final String SEARCH_FIRST = "first";
     private static final String SEARCH_EXACT = "exact";
     private static final String HTML_SLASH_QUOTE = "/\"";
-    private static final Pattern PERSON_REGEX = Pattern.compile(Pattern.quote("<link rel=\"canonical\" href=\"http://www.imdb.com/name/(nm\\d+)/\""));
-    private static final Pattern TITLE_REGEX = Pattern.compile(Pattern.quote("<link rel=\"canonical\" href=\"http://www.imdb.com/title/(tt\\d+)/\""));
+    private static final Pattern PERSON_REGEX = Pattern.compile("<link rel=\"canonical\" href=\"https?://www\\.imdb\\.com/name/(nm\\d+)/\"");
+    private static final Pattern TITLE_REGEX = Pattern.compile("<link rel=\"canonical\" href=\"https?://www\\.imdb\\.com/title/(tt\\d+)/\"");
 
     private final PluginConfigService configService;
     private final CommonHttpClient httpClient;
     private final SearchEngineTools searchEngineTools;
+    private final ImdbSearchCache searchCache;
+    private final ImdbDatasetIndex datasetIndex;
+    private final ImdbRateGovernor rateGovernor;
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong fastPathCount = new AtomicLong();
 
-    public ImdbSearchEngine(PluginConfigService configService, PluginLocaleService localeService, CommonHttpClient httpClient) {
+    public ImdbSearchEngine(PluginConfigService configService, PluginLocaleService localeService, CommonHttpClient httpClient, ImdbSearchCache searchCache,
+                    ImdbDatasetIndex datasetIndex, ImdbRateGovernor rateGovernor) {
         this.configService = configService;
         this.httpClient = httpClient;
         this.searchEngineTools = new SearchEngineTools(httpClient, localeService.getLocale());
+        this.searchCache = searchCache;
+        this.datasetIndex = datasetIndex;
+        this.rateGovernor = rateGovernor;
     }
 
     /**
@@ -88,7 +105,32 @@ public class ImdbSearchEngine {
      * @return the IMDb id
      */
     private String getImdbId(String title, int year, String categoryType, boolean throwTempError) {
-        String imdbId = getImdbIdFromImdb(title, year, OBJECT_MOVIE, categoryType, throwTempError);
+        if (CATEGORY_MOVIE.equals(categoryType) || CATEGORY_TV.equals(categoryType)) {
+            final String datasetId = datasetIndex.findTitle(title, year, CATEGORY_TV.equals(categoryType));
+            if (datasetId != null) {
+                LOG.debug("Resolved IMDb ID for '{}' from dataset", title);
+                return datasetId;
+            }
+        }
+        
+        final String cacheKey = ImdbSearchCache.titleKey(title, year, categoryType);
+        final long cached = searchCache.get(cacheKey);
+        if (cached != ImdbSearchCache.MISS) {
+            LOG.debug("Resolved IMDb ID for '{}' from cache", title);
+            return ImdbId.toString(cached);
+        }
+
+        boolean failed = false;
+        String imdbId;
+        try {
+            imdbId = getImdbIdFromImdb(title, year, OBJECT_MOVIE, categoryType, throwTempError);
+        } catch (IOException ex) {
+            LOG.error("Failed retrieving IMDb Id for '{}': {}", title, ex.getMessage());
+            LOG.trace("IMDb search error", ex);
+            imdbId = null;
+            failed = true;
+        }
+        
         if (StringUtils.isBlank(imdbId)) {
             // try with search engines
             String imdbUrl;
@@ -99,6 +141,13 @@ public class ImdbSearchEngine {
                 imdbUrl = searchEngineTools.searchURL(title, year, "www.imdb.com/title", throwTempError);
             }
             imdbId = getImdbIdFromURL(imdbUrl, categoryType);
+            // no result can't be told apart from a failed request
+            failed |= imdbUrl == null;
+        }
+
+        // never remember a failed request as not found
+        if (!failed || imdbId != null) {
+            searchCache.put(cacheKey, imdbId);
         }
         return imdbId;
     }
@@ -109,40 +158,60 @@ public class ImdbSearchEngine {
      * @return
      */
     public String getImdbPersonId(String personName, String movieId,  boolean throwTempError) {
+        if (StringUtils.isBlank(movieId)) {
+            return getImdbPersonId(personName, throwTempError);
+        }
+
+        final String cacheKey = ImdbSearchCache.personKey(personName, movieId);
+        final long cached = searchCache.get(cacheKey);
+        if (cached == ImdbId.INVALID) {
+            // known to be not found for this movie
+            return getImdbPersonId(personName, throwTempError);
+        } else if (cached != ImdbSearchCache.MISS) {
+            LOG.debug("Resolved IMDb ID for person '{}' from cache", personName);
+            return ImdbId.toString(cached);
+        }
+
         try {
-            if (StringUtils.isNotBlank(movieId)) {
-                StringBuilder sb = new StringBuilder("http://www.imdb.com/")
-                    .append("search/name?name=")
-                    .append(HTMLTools.encodeUrl(personName))
-                    .append("&role=")
-                    .append(movieId);
-
-                LOG.debug("Querying IMDB for '{}'", sb.toString());
-                DigestedResponse response = httpClient.requestContent(sb.toString());
-                if (isOK(response)) {
-                    
-                    // Check if this is an exact match (we got a person page instead of a results list)
-                    Matcher personMatch = PERSON_REGEX.matcher(response.getContent());
-                    if (personMatch.find()) {
-                        LOG.debug("IMDb returned one match '{}'", personMatch.group(1));
-                        return personMatch.group(1);
-                    }
-    
-                    String firstPersonId = HTMLTools.extractTag(HTMLTools.extractTag(response.getContent(), "<tr class=\"even detailed\">", "</tr>"), "<a href=\"/name/", HTML_SLASH_QUOTE);
-                    if (StringUtils.isNotBlank(firstPersonId)) {
-                        return firstPersonId;
-                    }
-                } else if (throwTempError && isTemporaryError(response)) {
-                    throw new TemporaryUnavailableException("IMDb service temporary not available: " + response.getStatusCode());
-                }
+            StringBuilder sb = new StringBuilder("http://www.imdb.com/")
+                .append("search/name?name=")
+                .append(HTMLTools.encodeUrl(personName))
+                .append("&role=")
+                .append(movieId);
+
+            LOG.debug("Querying IMDB for '{}'", sb.toString());
+            SearchResponse searchResponse = requestSearch(sb.toString(), OBJECT_PERSON);
+            if (searchResponse.imdbId != null) {
+                searchCache.put(cacheKey, searchResponse.imdbId);
+                return searchResponse.imdbId;
             }
+            DigestedResponse response = searchResponse.response;
+            if (isOK(response)) {
+                
+                // Check if this is an exact match (we got a person page instead of a results list)
+                Matcher personMatch = PERSON_REGEX.matcher(response.getContent());
+                if (personMatch.find()) {
+                    searchCache.put(cacheKey, fastPathHit(personMatch.group(1)));
+                    return personMatch.group(1);
+                }
 
-            return getImdbPersonId(personName, throwTempError);
+                String firstPersonId = HTMLTools.extractTag(HTMLTools.extractTag(response.getContent(), "<tr class=\"even detailed\">", "</tr>"), "<a href=\"/name/", HTML_SLASH_QUOTE);
+                if (ImdbId.isValid(firstPersonId, ImdbId.TYPE_PERSON)) {
+                    searchCache.put(cacheKey, firstPersonId);
+                    return firstPersonId;
+                }
+                searchCache.put(cacheKey, null);
+            } else if (throwTempError && isTemporaryError(response)) {
+                throw new TemporaryUnavailableException("IMDb service temporary not available: " + response.getStatusCode());
+            }
         } catch (IOException ex) {
             LOG.error("Failed retrieving IMDb Id for person '{}': {}", personName, ex.getMessage());
             LOG.trace("IMDb search error", ex);
             return null;
         }
+
+        // the search without movie is cached by itself
+        return getImdbPersonId(personName, throwTempError);
     }
 
     /**
@@ -152,43 +221,102 @@ public class ImdbSearchEngine {
      * @return
      */
     public String getImdbPersonId(String personName, boolean throwTempError) {
-        String imdbId = getImdbIdFromImdb(personName.toLowerCase(), -1, OBJECT_PERSON, ALL, throwTempError);
+        final String datasetId = datasetIndex.findPerson(personName);
+        if (datasetId != null) {
+            LOG.debug("Resolved IMDb ID for person '{}' from dataset", personName);
+            return datasetId;
+        }
+        
+        final String cacheKey = ImdbSearchCache.personKey(personName, null);
+        final long cached = searchCache.get(cacheKey);
+        if (cached != ImdbSearchCache.MISS) {
+            LOG.debug("Resolved IMDb ID for person '{}' from cache", personName);
+            return ImdbId.toString(cached);
+        }
+
+        boolean failed = false;
+        String imdbId;
+        try {
+            imdbId = getImdbIdFromImdb(personName.toLowerCase(), -1, OBJECT_PERSON, ALL, throwTempError);
+        } catch (IOException ex) {
+            LOG.error("Failed retrieving IMDb Id for '{}': {}", personName, ex.getMessage());
+            LOG.trace("IMDb search error", ex);
+            imdbId = null;
+            failed = true;
+        }
+
         if (StringUtils.isBlank(imdbId)) {
             String imdbUrl = searchEngineTools.searchURL(personName, -1, "www.imdb.com/name", throwTempError);
             imdbId = getImdbIdFromURL(imdbUrl, OBJECT_PERSON);
+            // no result can't be told apart from a failed request
+            failed |= imdbUrl == null;
+        }
+
+        // never remember a failed request as not found
+        if (!failed || imdbId != null) {
+            searchCache.put(cacheKey, imdbId);
         }
         return imdbId;
     }
 
+    /**
+     * Get the number of IMDb lookups.
+     *
+     * @return the number of lookups
+     */
+    public long getLookupCount() {
+        return lookupCount.get();
+    }
+
+    /**
+     * Get the number of IMDb lookups resolved by an exact match redirect or canonical link.
+     *
+     * @return the number of lookups resolved by the fast path
+     */
+    public long getFastPathCount() {
+        return fastPathCount.get();
+    }
+
+    private String fastPathHit(String imdbId) {
+        final long hits = fastPathCount.incrementAndGet();
+        LOG.debug("IMDb returned one match '{}'; fast path resolved {} of {} lookups", imdbId, hits, lookupCount.get());
+        return imdbId;
+    }
+
+    private static String getImdbIdFromRedirect(HttpClientContext context, String objectType) {
+        final List<URI> redirects = context.getRedirectLocations();
+        if (redirects == null || redirects.isEmpty()) {
+            return null;
+        }
+        return getImdbIdFromURL(redirects.get(redirects.size() - 1).toString(), objectType);
+    }
+
     private static String getImdbIdFromURL(String url, String objectType) {
         if (StringUtils.isBlank(url)) {
             return null;
         }
 
-        String imdbId = StringUtils.EMPTY;
-        int beginIndex = url.indexOf(objectType.equals(OBJECT_MOVIE) ? "/title/tt" : "/name/nm");
+        final boolean movie = objectType.equals(OBJECT_MOVIE);
+        final int beginIndex = url.indexOf(movie ? "/title/tt" : "/name/nm");
         if (beginIndex > -1) {
-            int index;
-            if (objectType.equals(OBJECT_MOVIE)) {
-                index = beginIndex + 7;
-            } else {
-                index = beginIndex + 6;
+            final long imdbId = ImdbId.parseAt(url, beginIndex + (movie ? 7 : 6));
+            if (ImdbId.getType(imdbId) == (movie ? ImdbId.TYPE_TITLE : ImdbId.TYPE_PERSON)) {
+                final String result = ImdbId.toString(imdbId);
+                LOG.debug("Found IMDb ID '{}'", result);
+                return result;
             }
-            StringTokenizer st = new StringTokenizer(url.substring(index), HTML_SLASH_QUOTE);
-            imdbId = st.nextToken();
-        }
-
-        if (imdbId.startsWith(objectType.equals(OBJECT_MOVIE) ? "tt" : "nm")) {
-            LOG.debug("Found IMDb ID '{}'", imdbId);
-            return imdbId;
         }
         return null;
     }
 
+    private static String validId(String imdbId, String objectType) {
+        return ImdbId.isValid(imdbId, objectType.equals(OBJECT_MOVIE) ? ImdbId.TYPE_TITLE : ImdbId.TYPE_PERSON) ? imdbId : null;
+    }
+
     /**
      * Retrieve the IMDb matching the specified movie name and year. This routine is base on a IMDb request.
      */
-    private String getImdbIdFromImdb(String title, int year, String objectType, String categoryType, boolean throwTempError) {
+    private String getImdbIdFromImdb(String title, int year, String objectType, String categoryType, boolean throwTempError) throws IOException {
         String searchMatch = configService.getProperty("imdb.id.search.match", "regular");
 
         StringBuilder sb = new StringBuilder("http://www.imdb.com/");
@@ -212,21 +340,17 @@ public class ImdbSearchEngine {
         sb.append("&site=aka");
 
         LOG.debug("Querying IMDb for '{}'", sb.toString());
-        String xml;
-        try {
-            DigestedResponse response = httpClient.requestContent(sb.toString());
-            if (throwTempError && isTemporaryError(response)) {
-                throw new TemporaryUnavailableException("IMDb service temporary not available: " + response.getStatusCode());
-            } else if (isNotOK(response)) {
-                LOG.error("Can't find IMDb id due response status {} for '{}'", response.getStatusCode(), title);
-                return null;
-            }
-            xml = response.getContent();
-        } catch (IOException ex) {
-            LOG.error("Failed retrieving IMDb Id for '{}': {}", title, ex.getMessage());
-            LOG.trace("IMDb search error", ex);
-            return null;
+        SearchResponse searchResponse = requestSearch(sb.toString(), objectType);
+        if (searchResponse.imdbId != null) {
+            return searchResponse.imdbId;
+        }
+        DigestedResponse response = searchResponse.response;
+        if (throwTempError && isTemporaryError(response)) {
+            throw new TemporaryUnavailableException("IMDb service temporary not available: " + response.getStatusCode());
+        } else if (isNotOK(response)) {
+            throw new IOException("Can't find IMDb id due response status " + response.getStatusCode());
         }
+        final String xml = response.getContent();
 
         // Check if this is an exact match (we got a movie page instead of a results list)
         Pattern titleRegex;
@@ -238,8 +362,7 @@ public class ImdbSearchEngine {
 
         Matcher titleMatch = titleRegex.matcher(xml);
         if (titleMatch.find()) {
-            LOG.debug("IMDb returned one match '{}'", titleMatch.group(1));
-            return titleMatch.group(1);
+            return fastPathHit(titleMatch.group(1));
         }
 
         String searchName = HTMLTools.extractTag(HTMLTools.extractTag(xml, ";ttype=ep\">", "\"</a>.</li>"), "<b>", "</b>").toLowerCase();
@@ -293,11 +416,11 @@ public class ImdbSearchEngine {
             }
 
             if (foundMatch) {
-                return HTMLTools.extractTag(searchResult, "<a href=\"" + (objectType.equals(OBJECT_MOVIE) ? "/title/" : "/name/"), "/");
+                return validId(HTMLTools.extractTag(searchResult, "<a href=\"" + (objectType.equals(OBJECT_MOVIE) ? "/title/" : "/name/"), "/"), objectType);
             }
             for (String otherResult : HTMLTools.extractTags(searchResult, "</';\">", "</p>", "<p class=\"find-aka\">", "</em>", false)) {
                 if (otherResult.toLowerCase().contains("\"" + searchName + "\"")) {
-                    return HTMLTools.extractTag(searchResult, "/images/b.gif?link=" + (objectType.equals(OBJECT_MOVIE) ? "/title/" : "/name/"), "/';\">");
+                    return validId(HTMLTools.extractTag(searchResult, "/images/b.gif?link=" + (objectType.equals(OBJECT_MOVIE) ? "/title/" : "/name/"), "/';\">"), objectType);
                 }
             }
         }
@@ -314,7 +437,7 @@ public class ImdbSearchEngine {
                 }
             }
 
-            if (firstPersonId.startsWith("nm")) {
+            if (ImdbId.isValid(firstPersonId, ImdbId.TYPE_PERSON)) {
                 LOG.debug("Found IMDb ID '{}'", firstPersonId);
                 return firstPersonId;
             }
@@ -323,4 +446,43 @@ public class ImdbSearchEngine {
         LOG.debug("Failed to find a match on IMDb");
         return null;
     }
+
+    /**
+     * Request a search page. If IMDb redirected an exact match to the title or person page,
+     * the id is taken from the final URL and the body is not decoded.
+     */
+    private SearchResponse requestSearch(String url, String objectType) throws IOException {
+        lookupCount.incrementAndGet();
+
+        final HttpClientContext context = HttpClientContext.create();
+        rateGovernor.acquire(ImdbRateGovernor.Endpoint.SEARCH);
+        final HttpResponse response = httpClient.execute(new HttpGet(url), context);
+        try {
+            final int statusCode = response.getStatusLine().getStatusCode();
+            rateGovernor.update(ImdbRateGovernor.Endpoint.SEARCH, statusCode);
+            if (!isOK(statusCode)) {
+                return new SearchResponse(new DigestedResponse(statusCode, null), null);
+            }
+
+            final String imdbId = getImdbIdFromRedirect(context, objectType);
+            if (imdbId != null) {
+                return new SearchResponse(null, fastPathHit(imdbId));
+            }
+            final String content = response.getEntity() == null ? StringUtils.EMPTY : EntityUtils.toString(response.getEntity(), UTF8);
+            return new SearchResponse(new DigestedResponse(statusCode, content), null);
+        } finally {
+            EntityUtils.consumeQuietly(response.getEntity());
+        }
+    }
+
+    private static final class SearchResponse {
+
+        private final DigestedResponse response;
+        private final String imdbId;
+
+        public SearchResponse(DigestedResponse response, String imdbId) {
+            this.response = response;
+            this.imdbId = imdbId;
+        }
+    }
 }
@@ -113,18 +113,16 @@ public final class ImdbSeriesScanner extends AbstractImdbScanner implements Seri
             imdbApiWrapper.parseAwards(series);
         }
         
-        // scan seasons
-        this.scanSeasons(series, imdbId, title, originalTitle, plot, outline, locale);
+        // scan seasons with one episode table for the whole series
+        final ImdbEpisodeTable episodeTable = imdbApiWrapper.getEpisodeTable(imdbId, locale);
+        this.scanSeasons(series, episodeTable, title, originalTitle, plot, outline, locale);
 
         return true;
     }
 
-    private void scanSeasons(ISeries series, String imdbId, String title, String originalTitle, String plot, String outline, Locale locale) {
+    private void scanSeasons(ISeries series, ImdbEpisodeTable episodeTable, String title, String originalTitle, String plot, String outline, Locale locale) {
         for (ISeason season : series.getSeasons()) {
 
-            // get the episodes
-            Map<Integer, ImdbEpisodeDTO> episodes = getEpisodes(imdbId, season.getNumber(), locale);
-
             if (!season.isDone()) {
                 // use values from series
                 season.setTitle(title);
@@ -132,35 +130,32 @@ public final class ImdbSeriesScanner extends AbstractImdbScanner implements Seri
                 season.setPlot(plot);
                 season.setOutline(outline);
 
-                Date publicationYear = null;
-                for (ImdbEpisodeDTO episode : episodes.values()) {
-                    if (publicationYear == null) {
-                        publicationYear = episode.getReleaseDate();
-                    } else if (episode.getReleaseDate() != null && publicationYear.after(episode.getReleaseDate())) {
-                        // previous episode
-                        publicationYear = episode.getReleaseDate();
+                // the year of the first episode; the shared table holds no localized release dates
+                int publicationYear = -1;
+                for (ImdbEpisodeDTO episode : episodeTable.getEpisodes(season.getNumber())) {
+                    if (episode.getYear() > 0 && (publicationYear < 0 || episode.getYear() < publicationYear)) {
+                        publicationYear = episode.getYear();
                     }
                 }
-                season.setYear(extractYearAsInt(publicationYear));
+                season.setYear(publicationYear);
 
                 // mark season as done
                 season.setDone();
 
                 // scan episodes
                 for (IEpisode episode : season.getEpisodes()) {
-                    this.scanEpisode(episode, episodes, locale);
+                    this.scanEpisode(episode, episodeTable.getEpisode(season.getNumber(), episode.getNumber()), locale);
                 }
             }
         }
     }
 
-    private void scanEpisode(IEpisode episode , Map<Integer, ImdbEpisodeDTO> episodes, Locale locale) {
+    private void scanEpisode(IEpisode episode , ImdbEpisodeDTO dto, Locale locale) {
         if (episode.isDone()) {
             // episode already done
             return;
         }
         
-        ImdbEpisodeDTO dto = episodes.get(Integer.valueOf(episode.getNumber()));
         if (dto == null) {
             // mark episode as not found
             episode.setNotFound();
@@ -170,7 +165,6 @@ public final class ImdbSeriesScanner extends AbstractImdbScanner implements Seri
         // fill in data
         episode.addId(SOURCE_IMDB, dto.getImdbId());
         episode.setTitle(dto.getTitle());
-        episode.setRelease(dto.getReleaseCountry(), dto.getReleaseDate());
 
         // get movie details from IMDB
         ImdbMovieDetails movieDetails = imdbApiWrapper.getMovieDetails(dto.getImdbId(), locale, false);
@@ -185,8 +179,8 @@ public final class ImdbSeriesScanner extends AbstractImdbScanner implements Seri
         episode.setTagline(movieDetails.getTagline());
         episode.setRating(parseRating(movieDetails.getRating()));
 
-        // RELEASE DATE
-        if (dto.getReleaseDate() == null && MapUtils.isNotEmpty(movieDetails.getReleaseDate())) {
+        // RELEASE DATE from the localized details
+        if (MapUtils.isNotEmpty(movieDetails.getReleaseDate())) {
             final Date releaseDate = parseToDate(movieDetails.getReleaseDate().get(LITERAL_NORMAL));
             episode.setRelease(releaseDate);
         }
@@ -209,16 +203,4 @@ public final class ImdbSeriesScanner extends AbstractImdbScanner implements Seri
         // CAST/CREW
         parseCastCrew(episode, dto.getImdbId());
     }
-
-    private Map<Integer, ImdbEpisodeDTO> getEpisodes(String imdbId, int season, Locale locale) {
-        Map<Integer, ImdbEpisodeDTO> episodes = new HashMap<>();
-        
-        List<ImdbEpisodeDTO> episodeList = imdbApiWrapper.getTitleEpisodes(imdbId, locale).get(Integer.valueOf(season));
-        if (episodeList != null) {
-            for (ImdbEpisodeDTO episode : episodeList) {
-                episodes.put(Integer.valueOf(episode.getEpisode()), episode);
-            }
-        }
-        return episodes;
-    }
 }
@@ -0,0 +1,102 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.util.*;
+
+/**
+ * Dictionary of studio names.
+ *
+ * Every studio name is stored once and referenced by a small int id, so that the studios of
+ * a title can be kept as an int array. The dictionary only grows; ids stay valid for the
+ * lifetime of the plugin.
+ */
+public final class ImdbStudioDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private volatile String[] names = new String[256];
+    private int size;
+
+    /**
+     * Get the id of a studio name; unknown names are added.
+     *
+     * @param name the studio name
+     * @return the id
+     */
+    public synchronized int intern(String name) {
+        final Integer id = ids.get(name);
+        if (id != null) {
+            return id.intValue();
+        }
+        
+        String[] current = names;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = name;
+        // publish the array after the name has been set
+        names = current;
+        ids.put(name, Integer.valueOf(size));
+        return size++;
+    }
+
+    /**
+     * Get the ids of studio names.
+     *
+     * @param studioNames the studio names in order
+     * @return the ids without duplicates in order
+     */
+    public int[] intern(Collection<String> studioNames) {
+        final int[] studioIds = new int[studioNames.size()];
+        int count = 0;
+        loop: for (String name : studioNames) {
+            final int id = intern(name);
+            for (int i = 0; i < count; i++) {
+                if (studioIds[i] == id) {
+                    continue loop;
+                }
+            }
+            studioIds[count++] = id;
+        }
+        return count == studioIds.length ? studioIds : Arrays.copyOf(studioIds, count);
+    }
+
+    /**
+     * Get the studio names for ids.
+     *
+     * @param studioIds the ids
+     * @return the studio names in order
+     */
+    public Set<String> getNames(int[] studioIds) {
+        final String[] current = names;
+        final Set<String> studios = new LinkedHashSet<>(studioIds.length * 2);
+        for (int id : studioIds) {
+            studios.add(current[id]);
+        }
+        return studios;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
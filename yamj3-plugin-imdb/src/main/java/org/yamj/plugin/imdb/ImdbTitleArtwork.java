@@ -0,0 +1,207 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import com.omertron.imdbapi.model.ImdbImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.yamj.plugin.api.model.type.ArtworkType;
+
+/**
+ * Posters and fanarts of a title, classified once out of the title photos.
+ *
+ * Per artwork only the URL, the hash code and the size as sort key are held in parallel
+ * arrays; posters come first, then fanarts, each ordered by descending size. Like before,
+ * only the first artwork of each size is taken.
+ */
+public final class ImdbTitleArtwork {
+
+    public static final ImdbTitleArtwork EMPTY = new ImdbTitleArtwork(new ArrayList<Candidate>(0), new ArrayList<Candidate>(0));
+
+    private final String[] urls;
+    private final String[] hashCodes;
+    private final int[] sizes;
+    private final int fanartStart;
+
+    private ImdbTitleArtwork(List<Candidate> posters, List<Candidate> fanarts) {
+        final int size = posters.size() + fanarts.size();
+        this.urls = new String[size];
+        this.hashCodes = new String[size];
+        this.sizes = new int[size];
+        this.fanartStart = posters.size();
+
+        int index = 0;
+        for (Candidate candidate : posters) {
+            set(index++, candidate);
+        }
+        for (Candidate candidate : fanarts) {
+            set(index++, candidate);
+        }
+    }
+
+    private void set(int index, Candidate candidate) {
+        urls[index] = candidate.url;
+        hashCodes[index] = candidate.hashCode;
+        sizes[index] = candidate.size;
+    }
+
+    /**
+     * Classify the title photos.
+     *
+     * @param images the title photos
+     * @return the artwork, never null
+     */
+    public static ImdbTitleArtwork of(List<ImdbImage> images) {
+        if (images == null || images.isEmpty()) {
+            return EMPTY;
+        }
+        
+        final List<Candidate> posters = new ArrayList<>();
+        final List<Candidate> fanarts = new ArrayList<>();
+        for (ImdbImage image : images) {
+            final ArtworkType artworkType = getArtworkType(image);
+            if (artworkType == ArtworkType.POSTER) {
+                posters.add(new Candidate(image));
+            } else if (artworkType == ArtworkType.FANART) {
+                fanarts.add(new Candidate(image));
+            }
+        }
+        
+        if (posters.isEmpty() && fanarts.isEmpty()) {
+            return EMPTY;
+        }
+        return new ImdbTitleArtwork(sortBySize(posters), sortBySize(fanarts));
+    }
+
+    private static ArtworkType getArtworkType(ImdbImage image) {
+        if (image.getImage() == null ||
+            StringUtils.isBlank(image.getImage().getUrl()) ||
+            !"presskit".equalsIgnoreCase(image.getSource()) ||
+            StringUtils.startsWithIgnoreCase(image.getCaption(), "Still of"))
+        {
+            return null;
+        }
+        
+        final int width = image.getImage().getWidth();
+        final int height = image.getImage().getHeight();
+        
+        if (width > height) {
+            if (width > (2*height)) {
+                return ArtworkType.BANNER;
+            }
+            return ArtworkType.FANART;
+        } else if (height == width) {
+            return null;
+        } else if (height > (2*width)) {
+            return null;
+        }
+        return ArtworkType.POSTER;
+    }
+
+    private static List<Candidate> sortBySize(List<Candidate> candidates) {
+        // stable sort, so the first artwork of a size comes first
+        Collections.sort(candidates, SIZE_DESCENDING);
+        
+        final List<Candidate> result = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            if (result.isEmpty() || result.get(result.size() - 1).size != candidate.size) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the first index of the artwork of a type.
+     *
+     * @param artworkType the artwork type
+     * @return the first index
+     */
+    public int start(ArtworkType artworkType) {
+        if (artworkType == ArtworkType.POSTER) {
+            return 0;
+        }
+        if (artworkType == ArtworkType.FANART) {
+            return fanartStart;
+        }
+        return urls.length;
+    }
+
+    /**
+     * Get the index after the last artwork of a type.
+     *
+     * @param artworkType the artwork type
+     * @return the end index (exclusive)
+     */
+    public int end(ArtworkType artworkType) {
+        if (artworkType == ArtworkType.POSTER) {
+            return fanartStart;
+        }
+        return urls.length;
+    }
+
+    public String getUrl(int index) {
+        return urls[index];
+    }
+
+    public String getHashCode(int index) {
+        return hashCodes[index];
+    }
+
+    public int getSize(int index) {
+        return sizes[index];
+    }
+
+    private static final Comparator<Candidate> SIZE_DESCENDING = new Comparator<Candidate>() {
+        @Override
+        public int compare(Candidate o1, Candidate o2) {
+            return Integer.compare(o2.size, o1.size);
+        }
+    };
+
+    private static final class Candidate {
+
+        private final String url;
+        private final String hashCode;
+        private final int size;
+
+        public Candidate(ImdbImage image) {
+            this.url = image.getImage().getUrl();
+            this.size = image.getImage().getWidth() * image.getImage().getHeight();
+            
+            // build hash code from link
+            String hash = null;
+            int beginIndex = StringUtils.indexOf(image.getLink(), "/rm");
+            if (beginIndex != -1) {
+                int endIndex = image.getLink().indexOf('/', beginIndex+1);
+                if (endIndex != -1) {
+                    hash = image.getLink().substring(beginIndex+1, endIndex);
+                }
+            }
+            this.hashCode = hash;
+        }
+    }
+}
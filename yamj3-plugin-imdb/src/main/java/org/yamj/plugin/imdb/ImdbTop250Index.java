@@ -0,0 +1,224 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import com.omertron.imdbapi.ImdbApi;
+import com.omertron.imdbapi.ImdbException;
+import com.omertron.imdbapi.model.ImdbList;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the IMDb Top 250.
+ *
+ * The index is refreshed in the background and persisted, so that scans never have to wait
+ * for it. If a refresh fails, the last good snapshot will be served further on.
+ */
+public class ImdbTop250Index {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImdbTop250Index.class);
+    private static final int FILE_VERSION = 1;
+    private static final int NO_RANK = -1;
+
+    private final ImdbApi imdbApi;
+    private final File file;
+    private final ImdbRateGovernor rateGovernor;
+    private volatile IntIntMap ranks;
+    private volatile long lastRefresh;
+    private final long refreshMillis;
+    private final long retryMillis;
+    private int failures;
+
+    /**
+     * Create the index.
+     *
+     * A failed refresh is retried after the retry interval, which doubles with
+     * each further failure up to the refresh interval.
+     *
+     * @param imdbApi the IMDb API
+     * @param file the file of the persisted snapshot
+     * @param rateGovernor the rate governor
+     * @param refreshMillis the refresh interval in milliseconds
+     * @param retryMillis the first retry interval in milliseconds
+     */
+    public ImdbTop250Index(ImdbApi imdbApi, File file, ImdbRateGovernor rateGovernor, long refreshMillis, long retryMillis) {
+        this.imdbApi = imdbApi;
+        this.file = file;
+        this.rateGovernor = rateGovernor;
+        this.refreshMillis = refreshMillis;
+        this.retryMillis = Math.min(retryMillis, refreshMillis);
+    }
+
+    /**
+     * Load the persisted snapshot and schedule the refresh of the index.
+     *
+     * @param scheduler the scheduler to use
+     */
+    public void start(final ScheduledExecutorService scheduler) {
+        load();
+
+        final long initialDelay = Math.max(0, lastRefresh + refreshMillis - System.currentTimeMillis());
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                final long delay = nextDelay(refresh());
+                if (!scheduler.isShutdown()) {
+                    scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+                }
+            }
+        }, initialDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the delay until the next refresh.
+     *
+     * @param refreshed true if the last refresh succeeded
+     * @return the delay in milliseconds
+     */
+    long nextDelay(boolean refreshed) {
+        if (refreshed) {
+            failures = 0;
+            return refreshMillis;
+        }
+        final long delay = retryMillis << Math.min(failures, 30);
+        failures++;
+        return delay > 0 ? Math.min(delay, refreshMillis) : refreshMillis;
+    }
+
+    /**
+     * Get the Top 250 rank of a movie.
+     *
+     * @param imdbId the IMDb id of the movie
+     * @return the rank or -1 if the movie is not ranked or no snapshot is available yet
+     */
+    public int getRank(String imdbId) {
+        final IntIntMap current = ranks;
+        final int key = toKey(imdbId);
+        if (current == null || key < 0) {
+            return NO_RANK;
+        }
+        return current.get(key, NO_RANK);
+    }
+
+    private static int toKey(String imdbId) {
+        final long packed = ImdbId.parse(imdbId);
+        if (ImdbId.getType(packed) != ImdbId.TYPE_TITLE || ImdbId.getNumber(packed) > Integer.MAX_VALUE) {
+            return -1;
+        }
+        return (int) ImdbId.getNumber(packed);
+    }
+
+    /**
+     * Refresh the index.
+     *
+     * @return true if the refresh succeeded, else false
+     */
+    public boolean refresh() {
+        final List<ImdbList> top250;
+        try {
+            // the ranking does not depend on the locale
+            rateGovernor.acquire(ImdbRateGovernor.Endpoint.APP_API);
+            top250 = imdbApi.getTop250(Locale.US);
+        } catch (ImdbException ex) {
+            rateGovernor.update(ImdbRateGovernor.Endpoint.APP_API, ex.getResponseCode());
+            LOG.warn("Failed to refresh Top250, keeping last snapshot: {}", ex.getMessage());
+            LOG.trace("IMDb error", ex);
+            return false;
+        } catch (RuntimeException ex) {
+            LOG.warn("Failed to refresh Top250, keeping last snapshot", ex);
+            return false;
+        }
+
+        if (top250 == null || top250.isEmpty()) {
+            LOG.warn("Got empty Top250, keeping last snapshot");
+            return false;
+        }
+
+        IntIntMap newRanks = new IntIntMap(top250.size());
+        int rank = 0;
+        for (ImdbList imdbList : top250) {
+            rank++;
+            final int key = toKey(imdbList.getImdbId());
+            if (key >= 0) {
+                newRanks.put(key, rank);
+            }
+        }
+
+        this.ranks = newRanks;
+        this.lastRefresh = System.currentTimeMillis();
+        LOG.debug("Refreshed Top250 with {} entries", newRanks.size());
+
+        save();
+        return true;
+    }
+
+    private void load() {
+        if (!file.isFile()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return;
+            }
+            final long timestamp = in.readLong();
+            this.ranks = IntIntMap.readFrom(in);
+            this.lastRefresh = timestamp;
+        } catch (IOException ex) {
+            LOG.warn("Failed to load Top250 snapshot: {}", ex.getMessage());
+            LOG.trace("Top250 error", ex);
+        }
+    }
+
+    private void save() {
+        final IntIntMap current = ranks;
+        if (current == null) {
+            return;
+        }
+
+        try {
+            final File parent = file.getAbsoluteFile().getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Failed to create directory " + parent);
+            }
+
+            final File tempFile = File.createTempFile(file.getName(), ".tmp", parent);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeLong(lastRefresh);
+                current.writeTo(out);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            LOG.warn("Failed to save Top250 snapshot: {}", ex.getMessage());
+            LOG.trace("Top250 error", ex);
+        }
+    }
+}
\ No newline at end of file
@@ -25,10 +25,9 @@ package org.yamj.plugin.imdb;
 import static org.yamj.plugin.api.Constants.SOURCE_IMDB;
 
 import com.omertron.imdbapi.model.ImdbEncodingFormat;
-import com.omertron.imdbapi.model.ImdbMovieDetails;
+import com.omertron.imdbapi.model.ImdbTrailer;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.yamj.plugin.api.model.IMovie;
@@ -59,15 +58,15 @@ public final class ImdbTrailerScanner extends AbstractImdbScanner implements Mov
             return null; //NOSONAR
         }
         
-        ImdbMovieDetails movieDetails = imdbApiWrapper.getMovieDetails(imdbId, Locale.US, false);
-        if (movieDetails == null || movieDetails.getTrailer() == null || MapUtils.isEmpty(movieDetails.getTrailer().getEncodings())) {
+        ImdbTrailer trailer = imdbApiWrapper.getTrailer(imdbId);
+        if (trailer == null || MapUtils.isEmpty(trailer.getEncodings())) {
             return null; //NOSONAR
         }
         
         String url = null;
         int prio = 1000;
         
-        for (ImdbEncodingFormat format : movieDetails.getTrailer().getEncodings().values()) {
+        for (ImdbEncodingFormat format : trailer.getEncodings().values()) {
             switch(format.getFormat()) {
                 case "HD 720":
                    if (prio > 10) {
@@ -100,7 +99,7 @@ public final class ImdbTrailerScanner extends AbstractImdbScanner implements Mov
             return null; //NOSONAR
         }
         
-        TrailerDTO dto = new TrailerDTO(SOURCE_IMDB, ContainerType.MP4, url, movieDetails.getTrailer().getTitle(), imdbId); 
+        TrailerDTO dto = new TrailerDTO(SOURCE_IMDB, ContainerType.MP4, url, trailer.getTitle(), imdbId); 
         return Collections.singletonList(dto);
     }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Map from primitive int keys to primitive int values using open addressing with linear probing.
+ *
+ * The map is not thread-safe; it's meant to be filled once and then be published as an
+ * immutable snapshot.
+ */
+public final class IntIntMap {
+
+    private static final int FREE_KEY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+    private int size;
+
+    public IntIntMap(int expectedSize) {
+        final int capacity = capacityFor(expectedSize);
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        final int minCapacity = (int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR);
+        return Integer.highestOneBit(minCapacity - 1) << 1;
+    }
+
+    private static int mix(int key) {
+        // MurmurHash3 finalizer to spread sequential keys
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Get the value for the given key.
+     *
+     * @param key the key
+     * @param defaultValue the value to return if the key is not present
+     * @return the value
+     */
+    public int get(int key, int defaultValue) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+
+        final int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (true) {
+            final int current = keys[index];
+            if (current == key) {
+                return values[index];
+            }
+            if (current == FREE_KEY) {
+                return defaultValue;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+
+        final int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (true) {
+            final int current = keys[index];
+            if (current == key) {
+                return true;
+            }
+            if (current == FREE_KEY) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Put a value into the map.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(int key, int value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                size++;
+            }
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return;
+        }
+
+        if (insert(keys, values, key, value)) {
+            size++;
+            if (size > keys.length * LOAD_FACTOR) {
+                rehash(keys.length << 1);
+            }
+        }
+    }
+
+    private static boolean insert(int[] keys, int[] values, int key, int value) {
+        final int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (true) {
+            final int current = keys[index];
+            if (current == FREE_KEY) {
+                keys[index] = key;
+                values[index] = value;
+                return true;
+            }
+            if (current == key) {
+                values[index] = value;
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        final int[] newKeys = new int[capacity];
+        final int[] newValues = new int[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        this.keys = newKeys;
+        this.values = newValues;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Write the entries of this map.
+     *
+     * @param out the data output
+     * @throws IOException if writing failed
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        if (hasFreeKey) {
+            out.writeInt(FREE_KEY);
+            out.writeInt(freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                out.writeInt(keys[i]);
+                out.writeInt(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Read a map written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the data input
+     * @return the map
+     * @throws IOException if reading failed
+     */
+    public static IntIntMap readFrom(DataInput in) throws IOException {
+        final int size = in.readInt();
+        final IntIntMap map = new IntIntMap(size);
+        for (int i = 0; i < size; i++) {
+            final int key = in.readInt();
+            map.put(key, in.readInt());
+        }
+        return map;
+    }
+}
\ No newline at end of file
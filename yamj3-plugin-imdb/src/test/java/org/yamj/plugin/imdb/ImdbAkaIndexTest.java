@@ -0,0 +1,55 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ImdbAkaIndexTest {
+
+    private static final String RELEASE_INFO = "<h2>Also Known As</h2><a id=\"akas\" name=\"akas\"></a><table>"
+                    + "<tr><td>(original title)</td><td>Le fabuleux destin d'Amélie Poulain </td></tr>"
+                    + "<tr><td>USA (working title)</td><td>Amelie from Montmartre</td></tr>"
+                    + "<tr><td>USA / UK</td><td>Amélie</td></tr>"
+                    + "<tr><td>Germany</td><td>Die fabelhafte Welt der Amélie</td></tr>"
+                    + "</table>";
+
+    @Test
+    public void testParse() {
+        ImdbAkaIndex index = ImdbAkaIndex.parse(RELEASE_INFO);
+        assertFalse(index.isEmpty());
+        assertEquals("Le fabuleux destin d'Amélie Poulain", index.getOriginalTitle());
+        assertEquals(2, index.getAkas("USA").size());
+        assertEquals("USA (working title)", index.getAkas("USA").get(0).getVersion());
+        assertEquals("Amélie", index.getAkas("UK").get(0).getTitle());
+        assertEquals("Die fabelhafte Welt der Amélie", index.getAkas("Germany").get(0).getTitle());
+        assertTrue(index.getAkas("France").isEmpty());
+    }
+
+    @Test
+    public void testEmpty() {
+        assertSame(ImdbAkaIndex.EMPTY, ImdbAkaIndex.parse(null));
+        assertSame(ImdbAkaIndex.EMPTY, ImdbAkaIndex.parse("<html></html>"));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import org.junit.Test;
+import org.yamj.plugin.api.model.ICombined;
+
+public class ImdbAwardsParserTest {
+
+    @Test
+    public void testParseAwards() throws IOException {
+        List<List<Object>> awards = new ArrayList<>();
+        int count = ImdbAwardsParser.parse(readPage("/imdb/awards-tt0111161.html"), recordAwards(awards));
+
+        assertEquals(15, count);
+        assertEquals(15, awards.size());
+        assertEquals(Arrays.<Object>asList("Oscar", "Best Picture", 1995, false, true), awards.get(0));
+        assertEquals(Arrays.<Object>asList("Oscar", "Best Music, Original Score", 1995, false, true), awards.get(6));
+        assertEquals(Arrays.<Object>asList("Award of the Japanese Academy", "Best Foreign Film", 1996, true, false), awards.get(8));
+        // no category title, so the award category is used
+        assertEquals(Arrays.<Object>asList("Best Cinematography Award", "Best Cinematography Award", 1995, false, true), awards.get(9));
+        // outcome is valid for the following rows
+        assertEquals(true, awards.get(13).get(3));
+        assertEquals(false, awards.get(14).get(3));
+    }
+
+    @Test
+    public void testFirstRowCategory() {
+        List<List<Object>> awards = new ArrayList<>();
+        String page = "<h1 class=\"header\">Awards</h1>"
+                        + "<h3>Venice Film Festival <a href=\"/event/ev0000681/1995\">1995</a></h3>"
+                        + "<span class=\"award_category\">Golden Lion</span>"
+                        + "<table class=\"awards\"><tr><td class=\"title_award_outcome\"><b>Won</b></td>"
+                        + "<td class=\"award_description\"><a href=\"/name/nm0001104/\">Frank Darabont</a><br />"
+                        + "<span class=\"award_category\">Best Film</span><span class=\"award_category\">Jury &amp; Audience</span>"
+                        + "</td></tr></table>";
+        assertEquals(1, ImdbAwardsParser.parse(page, recordAwards(awards)));
+        assertEquals(Arrays.<Object>asList("Golden Lion", "Best Film", 1995, true, false), awards.get(0));
+    }
+
+    @Test
+    public void testNoAwards() {
+        List<List<Object>> awards = new ArrayList<>();
+        assertEquals(0, ImdbAwardsParser.parse(null, recordAwards(awards)));
+        assertEquals(0, ImdbAwardsParser.parse("<html><body>No awards</body></html>", recordAwards(awards)));
+        assertEquals(0, awards.size());
+    }
+
+    private static String readPage(String resource) throws IOException {
+        try (InputStream stream = ImdbAwardsParserTest.class.getResourceAsStream(resource); Scanner scanner = new Scanner(stream, "UTF-8")) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+
+    private static ICombined recordAwards(final List<List<Object>> awards) {
+        return (ICombined) Proxy.newProxyInstance(ICombined.class.getClassLoader(), new Class<?>[]{ICombined.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("addAward".equals(method.getName())) {
+                    awards.add(Arrays.asList(args));
+                }
+                return null;
+            }
+        });
+    }
+}
\ No newline at end of file
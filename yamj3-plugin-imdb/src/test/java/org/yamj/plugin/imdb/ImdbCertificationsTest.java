@@ -0,0 +1,55 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ImdbCertificationsTest {
+
+    private static final String PARENTAL_GUIDE = "<h5><a href=\"/mpaa\">MPAA</a>:</h5> Rated R for violence and language<br/>"
+                    + "<h5>Certification:</h5><div class=\"info-content\">"
+                    + "<a href=\"/search/title?certificates=DE:16\">Germany:16</a> | "
+                    + "<a href=\"/search/title?certificates=DE:12\">Germany:12</a> (TV) | "
+                    + "<a href=\"/search/title?certificates=GB:15\">UK:15</a> | "
+                    + "<a href=\"/search/title?certificates=US:R\">USA:R</a> (certificate #33891)"
+                    + "</div>";
+
+    @Test
+    public void testParse() {
+        ImdbCertifications certifications = ImdbCertifications.parse(PARENTAL_GUIDE);
+        assertEquals("R", certifications.getMpaa());
+        // the last certificate of a country wins
+        assertEquals("12", certifications.getCertificate(new String[]{"Germany"}));
+        assertEquals("15", certifications.getCertificate(new String[]{"Great Britain", "UK"}));
+        assertEquals("R", certifications.getCertificate(new String[]{"USA"}));
+        assertNull(certifications.getCertificate(new String[]{"France"}));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertSame(ImdbCertifications.EMPTY, ImdbCertifications.parse(null));
+        assertSame(ImdbCertifications.EMPTY, ImdbCertifications.parse("<html></html>"));
+    }
+}
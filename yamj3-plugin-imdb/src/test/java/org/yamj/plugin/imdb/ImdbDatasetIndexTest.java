@@ -0,0 +1,134 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ImdbDatasetIndexTest {
+
+    private static final String[] DATASETS = {"title.basics", "title.akas", "title.ratings", "title.episode", "name.basics"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sourceDirectory;
+    private File indexDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        sourceDirectory = folder.newFolder("source");
+        indexDirectory = new File(folder.getRoot(), "index");
+        for (String dataset : DATASETS) {
+            try (InputStream in = getClass().getResourceAsStream("/imdb/dataset/" + dataset + ".tsv")) {
+                if ("title.basics".equals(dataset)) {
+                    // use the compressed format for one of the datasets
+                    try (OutputStream out = new GZIPOutputStream(new FileOutputStream(new File(sourceDirectory, dataset + ".tsv.gz")))) {
+                        copy(in, out);
+                    }
+                } else {
+                    Files.copy(in, new File(sourceDirectory, dataset + ".tsv").toPath());
+                }
+            }
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+    @Test
+    public void testTitles() {
+        ImdbDatasetIndex index = new ImdbDatasetIndex(sourceDirectory, indexDirectory);
+        assertFalse(index.isAvailable());
+        assertTrue(index.importChanged());
+        assertTrue(index.isAvailable());
+
+        assertEquals("tt0133093", index.findTitle("The Matrix", 1999, false));
+        assertEquals("tt0133093", index.findTitle("the matrix!", -1, false));
+        assertNull(index.findTitle("The Matrix", 2003, false));
+        assertEquals("tt0106062", index.findTitle("Matrix", -1, false));
+        // AKA and original titles, accents are ignored
+        assertEquals("tt0111161", index.findTitle("Die Verurteilten", 1994, false));
+        assertEquals("tt0211915", index.findTitle("Die fabelhafte Welt der Am\u00e9lie", 2001, false));
+        assertEquals("tt0211915", index.findTitle("Le Fabuleux Destin d'Amelie Poulain", -1, false));
+        // series and episodes
+        assertEquals("tt0903747", index.findTitle("Breaking Bad", 2008, true));
+        assertNull(index.findTitle("Breaking Bad", 2008, false));
+        assertNull(index.findTitle("Pilot", -1, false));
+    }
+
+    @Test
+    public void testPersonsRatingsAndEpisodes() {
+        ImdbDatasetIndex index = new ImdbDatasetIndex(sourceDirectory, indexDirectory);
+        index.importChanged();
+
+        assertEquals("nm0000206", index.findPerson("Keanu Reeves"));
+        assertNull("ambiguous name", index.findPerson("John Smith"));
+        assertNull(index.findPerson("Unknown Person"));
+
+        assertEquals(9.3f, index.getRating("tt0111161"), 0.001f);
+        assertEquals(-1f, index.getRating("tt0211915"), 0.001f);
+
+        IntIntMap episodes = index.getEpisodes("tt0903747");
+        assertNotNull(episodes);
+        assertEquals(3, episodes.size());
+        assertEquals((1 << 16) | 2, ImdbDatasetIndex.getEpisodeNumber(episodes, "tt1054724"));
+        assertEquals((2 << 16) | 1, ImdbDatasetIndex.getEpisodeNumber(episodes, "tt1232244"));
+        assertEquals(-1, ImdbDatasetIndex.getEpisodeNumber(episodes, "tt9999999"));
+        assertNull(index.getEpisodes("tt0133093"));
+    }
+
+    @Test
+    public void testIncrementalImport() throws Exception {
+        ImdbDatasetIndex index = new ImdbDatasetIndex(sourceDirectory, indexDirectory);
+        assertTrue(index.importChanged());
+        assertFalse("nothing changed", index.importChanged());
+
+        // tables of the last import are mapped without import
+        ImdbDatasetIndex loaded = new ImdbDatasetIndex(sourceDirectory, indexDirectory);
+        loaded.load();
+        assertTrue(loaded.isAvailable());
+        assertEquals("tt0133093", loaded.findTitle("The Matrix", 1999, false));
+        assertFalse(loaded.importChanged());
+
+        // only the changed table is imported
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(sourceDirectory, "title.ratings.tsv"), true), "UTF-8")) {
+            writer.write("tt0211915\t8.3\t750000\n");
+        }
+        assertTrue(loaded.importChanged());
+        assertEquals(8.3f, loaded.getRating("tt0211915"), 0.001f);
+        assertEquals("tt0133093", loaded.findTitle("The Matrix", 1999, false));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import org.junit.Test;
+
+public class ImdbEpisodeTableTest {
+
+    private static ImdbEpisodeDTO episode(int number, long releaseDate) {
+        ImdbEpisodeDTO episode = new ImdbEpisodeDTO();
+        episode.setEpisode(number);
+        episode.setTitle("Episode " + number);
+        episode.setRelease("US", new Date(releaseDate));
+        return episode;
+    }
+
+    @Test
+    public void testLookup() {
+        ImdbEpisodeTable table = new ImdbEpisodeTable.Builder()
+                        .addSeason(2, Arrays.asList(episode(2, 2000L), episode(1, 1000L)))
+                        .addSeason(1, Arrays.asList(episode(1, 1000L), episode(2, 2000L), episode(3, 3000L)))
+                        .build();
+
+        assertEquals(5, table.size());
+        assertEquals(3, table.getEpisodes(1).size());
+        assertEquals(2, table.getEpisodes(2).size());
+        assertTrue(table.getEpisodes(3).isEmpty());
+        assertEquals("Episode 1", table.getEpisode(2, 1).getTitle());
+        assertEquals(1, table.getEpisodes(2).get(0).getEpisode());
+        assertNull(table.getEpisode(2, 3));
+    }
+
+    @Test
+    public void testRefresh() {
+        ImdbEpisodeTable previous = new ImdbEpisodeTable.Builder()
+                        .addSeason(1, Arrays.asList(episode(1, 1000L), episode(2, 2000L)))
+                        .build();
+
+        // same episode count and dates, but a corrected title and IMDb id
+        ImdbEpisodeDTO corrected = episode(2, 2000L);
+        corrected.setTitle("Corrected Title");
+        corrected.setImdbId("tt0000002");
+        ImdbEpisodeTable table = new ImdbEpisodeTable.Builder()
+                        .addSeason(1, Arrays.asList(episode(1, 1000L), corrected))
+                        .build();
+
+        // the fresh data is used
+        assertEquals("Episode 2", previous.getEpisode(1, 2).getTitle());
+        assertEquals("Corrected Title", table.getEpisode(1, 2).getTitle());
+        assertEquals("tt0000002", table.getEpisode(1, 2).getImdbId());
+        assertEquals(2, table.getEpisodes(1).size());
+    }
+
+    @Test
+    public void testPartialDataset() {
+        // only the first and third episode have a dataset number
+        ImdbEpisodeDTO second = episode(0, 2000L);
+        second.setTitle("Second");
+        ImdbEpisodeTable table = new ImdbEpisodeTable.Builder()
+                        .addSeason(1, Arrays.asList(episode(2, 1000L), second, episode(3, 3000L)))
+                        .addSeason(2, Arrays.asList(episode(2, 1000L), episode(1, 2000L)))
+                        .build();
+
+        // the partially numbered season is counted; no episode is dropped
+        assertEquals(3, table.getEpisodes(1).size());
+        assertEquals("Second", table.getEpisode(1, 2).getTitle());
+        // the fully numbered season keeps the dataset numbers
+        assertEquals(2, table.getEpisodes(2).size());
+        assertEquals("Episode 1", table.getEpisode(2, 1).getTitle());
+    }
+}
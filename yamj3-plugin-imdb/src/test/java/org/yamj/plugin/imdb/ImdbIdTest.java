@@ -0,0 +1,72 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import java.util.Locale;
+import org.junit.Test;
+
+public class ImdbIdTest {
+
+    @Test
+    public void testRoundTrip() {
+        for (String imdbId : new String[]{"tt0111161", "tt10234724", "nm0000151", "co0005073", "ch0000985"}) {
+            long packed = ImdbId.parse(imdbId);
+            assertNotEquals(ImdbId.INVALID, packed);
+            assertEquals(imdbId, ImdbId.toString(packed));
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        for (String imdbId : new String[]{null, "", "tt", "tt123", "xx0111161", "tt01111a1", " tt0111161", "tt01111611234"}) {
+            assertFalse(imdbId, ImdbId.isValid(imdbId));
+        }
+        assertNull(ImdbId.toString(ImdbId.INVALID));
+    }
+
+    @Test
+    public void testTypes() {
+        assertTrue(ImdbId.isValid("tt0111161", ImdbId.TYPE_TITLE));
+        assertFalse(ImdbId.isValid("tt0111161", ImdbId.TYPE_PERSON));
+        assertEquals(ImdbId.TYPE_PERSON, ImdbId.getType(ImdbId.parse("nm0000151")));
+        assertEquals(111161L, ImdbId.getNumber(ImdbId.parse("tt0111161")));
+    }
+
+    @Test
+    public void testParseAt() {
+        String url = "http://www.imdb.com/title/tt0111161/?ref_=nv_sr_1";
+        assertEquals("tt0111161", ImdbId.toString(ImdbId.parseAt(url, url.indexOf("/tt") + 1)));
+        assertEquals(ImdbId.INVALID, ImdbId.parseAt(url, url.length() - 1));
+    }
+
+    @Test
+    public void testCacheKey() {
+        long packed = ImdbId.parse("tt0111161");
+        assertNotEquals(ImdbId.cacheKey(packed, 1, Locale.GERMAN), ImdbId.cacheKey(packed, 1, Locale.ENGLISH));
+        assertNotEquals(ImdbId.cacheKey(packed, 1, Locale.GERMAN), ImdbId.cacheKey(packed, 2, Locale.GERMAN));
+        assertEquals(ImdbId.cacheKey(packed, 1, Locale.GERMANY), ImdbId.cacheKey(packed, 1, Locale.GERMAN));
+        assertEquals(ImdbId.INVALID, ImdbId.cacheKey(ImdbId.INVALID, 1, Locale.GERMAN));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import org.junit.Test;
+
+public class ImdbPageFragmentsTest {
+
+    private static final ImdbPageFragments FRAGMENTS = new ImdbPageFragments("<h1 class=\"header\">", "</h1>", "Country:</h4>", "</div>");
+
+    @Test
+    public void testCompletePage() throws Exception {
+        StringBuilder sb = new StringBuilder("<html>");
+        for (int i = 0; i < 2000; i++) {
+            sb.append("<div>filler</div>");
+        }
+        sb.append("<h1 class=\"header\">Title <span>(1999)</span></h1>");
+        for (int i = 0; i < 2000; i++) {
+            sb.append("<p>filler</p>");
+        }
+        sb.append("<h4>Country:</h4><a href=\"/country/us\">USA</a></div><div>rest</div>");
+
+        ImdbPageFragments.Result result = FRAGMENTS.read(new StringReader(sb.toString()));
+        assertTrue(result.isComplete());
+        assertEquals("<h1 class=\"header\">Title <span>(1999)</span></h1>Country:</h4><a href=\"/country/us\">USA</a></div>", result.getContent());
+    }
+
+    @Test
+    public void testMissingFragment() throws Exception {
+        ImdbPageFragments.Result result = FRAGMENTS.read(new StringReader("<h1 class=\"header\">Title</h1><div>no country</div>"));
+        assertFalse(result.isComplete());
+        assertEquals("<h1 class=\"header\">Title</h1>", result.getContent());
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ImdbPageStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPrune() throws IOException {
+        File directory = folder.newFolder("pages");
+        ImdbPageStore pageStore = new ImdbPageStore(null, null, directory, 10, 60000, 24 * 3600 * 1000L);
+        assertEquals(0, pageStore.prune());
+
+        File subDirectory = new File(directory, "93");
+        assertTrue(subDirectory.mkdirs());
+        File fresh = new File(subDirectory, "tt0133093.page");
+        File expired = new File(subDirectory, "tt0000093.page");
+        assertTrue(fresh.createNewFile());
+        assertTrue(expired.createNewFile());
+        assertTrue(expired.setLastModified(System.currentTimeMillis() - 2 * 24 * 3600 * 1000L));
+
+        // pages not validated within the maximum disk age are deleted
+        assertEquals(1, pageStore.prune());
+        assertTrue(fresh.exists());
+        assertFalse(expired.exists());
+    }
+}
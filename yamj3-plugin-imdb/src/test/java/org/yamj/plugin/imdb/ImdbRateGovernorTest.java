@@ -0,0 +1,58 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.yamj.plugin.imdb.ImdbRateGovernor.Endpoint;
+
+public class ImdbRateGovernorTest {
+
+    @Test
+    public void testThrottle() {
+        ImdbRateGovernor governor = new ImdbRateGovernor(600, 120, 60, 0);
+        assertEquals(600, governor.getRate(Endpoint.APP_API));
+        assertEquals(-1, governor.getRate(Endpoint.NAME_PAGE));
+
+        governor.update(Endpoint.APP_API, 200);
+        assertEquals(600, governor.getRate(Endpoint.APP_API));
+        assertEquals(0, governor.getThrottleCount(Endpoint.APP_API));
+
+        governor.update(Endpoint.APP_API, 503);
+        governor.update(Endpoint.APP_API, 429);
+        assertEquals(150, governor.getRate(Endpoint.APP_API));
+        assertEquals(2, governor.getThrottleCount(Endpoint.APP_API));
+        // other endpoints are not affected
+        assertEquals(120, governor.getRate(Endpoint.TITLE_PAGE));
+    }
+
+    @Test
+    public void testDisabledEndpoint() {
+        ImdbRateGovernor governor = new ImdbRateGovernor(0, 0, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            governor.acquire(Endpoint.SEARCH);
+        }
+        assertEquals(0, governor.getQueueDepth(Endpoint.SEARCH));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ImdbSearchCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testKeys() {
+        assertEquals(ImdbSearchCache.titleKey("The  Matrix ", 1999, "movie"), ImdbSearchCache.titleKey("the matrix", 1999, "movie"));
+        assertNotEquals(ImdbSearchCache.titleKey("The Matrix", 1999, "movie"), ImdbSearchCache.titleKey("The Matrix", 1999, "tv"));
+        assertNotEquals(ImdbSearchCache.personKey("Keanu Reeves", "tt0133093"), ImdbSearchCache.personKey("Keanu Reeves", null));
+    }
+
+    @Test
+    public void testPositiveAndNegativeEntries() throws Exception {
+        File file = new File(folder.getRoot(), "search.cache");
+        ImdbSearchCache cache = new ImdbSearchCache(file, 100, 60000, 60000);
+        assertEquals(ImdbSearchCache.MISS, cache.get("a"));
+
+        cache.put("a", "tt0133093");
+        cache.put("b", null);
+        assertEquals(ImdbId.parse("tt0133093"), cache.get("a"));
+        assertEquals(ImdbId.INVALID, cache.get("b"));
+        cache.save();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ImdbSearchCache loaded = new ImdbSearchCache(file, 100, 60000, 60000);
+            loaded.start(scheduler, 60000);
+            assertEquals("tt0133093", ImdbId.toString(loaded.get("a")));
+            assertEquals(ImdbId.INVALID, loaded.get("b"));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDisabledNegativeEntries() {
+        ImdbSearchCache cache = new ImdbSearchCache(new File(folder.getRoot(), "search.cache"), 100, 60000, 0);
+        cache.put("b", null);
+        assertEquals(ImdbSearchCache.MISS, cache.get("b"));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        ImdbSearchCache cache = new ImdbSearchCache(new File(folder.getRoot(), "search.cache"), 2, 60000, 60000);
+        cache.put("a", "tt0000001");
+        cache.put("b", "tt0000002");
+        // a is used more recently than b
+        assertEquals(ImdbId.parse("tt0000001"), cache.get("a"));
+        cache.put("c", "tt0000003");
+
+        assertEquals(2, cache.size());
+        assertEquals(ImdbId.parse("tt0000001"), cache.get("a"));
+        assertEquals(ImdbSearchCache.MISS, cache.get("b"));
+        assertEquals(ImdbId.parse("tt0000003"), cache.get("c"));
+    }
+}
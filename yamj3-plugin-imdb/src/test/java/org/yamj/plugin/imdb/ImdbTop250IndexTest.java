@@ -0,0 +1,53 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.imdb;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ImdbTop250IndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRetryBackoff() {
+        ImdbTop250Index index = new ImdbTop250Index(null, new File(folder.getRoot(), "top250.idx"), null, 60000, 5000);
+
+        // failures are retried with a doubling delay up to the refresh interval
+        assertEquals(5000, index.nextDelay(false));
+        assertEquals(10000, index.nextDelay(false));
+        assertEquals(20000, index.nextDelay(false));
+        assertEquals(40000, index.nextDelay(false));
+        assertEquals(60000, index.nextDelay(false));
+        assertEquals(60000, index.nextDelay(false));
+
+        // a successful refresh resets the backoff
+        assertEquals(60000, index.nextDelay(true));
+        assertEquals(5000, index.nextDelay(false));
+    }
+}
@@ -40,29 +40,47 @@ import com.omertron.themoviedbapi.model.tv.*;
 import com.omertron.themoviedbapi.results.ResultList;
 import com.omertron.themoviedbapi.tools.MethodSub;
 import java.net.URL;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
 import net.sf.ehcache.Cache;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.yamj.plugin.api.PluginExtensionException;
 import org.yamj.plugin.api.service.PluginConfigService;
 import org.yamj.plugin.api.tools.EhCacheWrapper;
 import org.yamj.plugin.api.web.TemporaryUnavailableException;
+import org.yamj.plugin.themoviedb.TheMovieDbChangeTracker.ChangeType;
 
 public class TheMovieDbApiWrapper {
 
     private static final Logger LOG = LoggerFactory.getLogger(TheMovieDbApiWrapper.class);
     private static final String API_ERROR = "TheMovieDb error";
     protected static final String NO_LANGUAGE = StringUtils.EMPTY;
+    private static final int MAX_IMAGE_MISSES = 5000;
                     
     private final TheMovieDbApi tmdbApi;
     private final PluginConfigService configService;
     private final EhCacheWrapper cache;
+    private final TheMovieDbInfoStore infoStore;
+    private final ConcurrentMap<String, FutureTask<?>> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> imageMisses;
     
-    public TheMovieDbApiWrapper(TheMovieDbApi tmdbApi, PluginConfigService configService, Cache cache) {
+    public TheMovieDbApiWrapper(TheMovieDbApi tmdbApi, PluginConfigService configService, Cache cache, TheMovieDbInfoStore infoStore) {
         this.tmdbApi = tmdbApi;
         this.configService = configService;
         this.cache = new EhCacheWrapper(cache);
+        this.infoStore = infoStore;
+        this.imageMisses = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > MAX_IMAGE_MISSES;
+            }
+        };
     }
     
     protected TheMovieDbApi getTheMovieDbApi() {
@@ -196,78 +214,281 @@ public class TheMovieDbApiWrapper {
         return id;
     }
 
-    public PersonInfo getPersonInfo(int tmdbId, boolean throwTempError) {
-        PersonInfo personInfo = null;
-        try {
-            personInfo = tmdbApi.getPersonInfo(tmdbId, MethodSub.COMBINED_CREDITS.getValue());
-        } catch (MovieDbException ex) {
-            checkTempError(throwTempError, ex);
-            LOG.error("Failed to get person info using TMDb ID {}: {}", tmdbId, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
-        }
-        return personInfo;
+    public PersonInfo getPersonInfo(final int tmdbId, final boolean throwTempError) {
+        return getCoalesced("personinfo###"+tmdbId, PersonInfo.class, new Loader<PersonInfo>() {
+            @Override
+            public PersonInfo load() {
+                PersonInfo personInfo = infoStore.get(ChangeType.PERSON, tmdbId, "info", PersonInfo.class);
+                if (personInfo != null) {
+                    return personInfo;
+                }
+                
+                try {
+                    personInfo = tmdbApi.getPersonInfo(tmdbId, MethodSub.COMBINED_CREDITS.getValue());
+                    if (personInfo != null && personInfo.getId() > 0) {
+                        infoStore.store(ChangeType.PERSON, tmdbId, "info", personInfo);
+                        return personInfo;
+                    }
+                } catch (MovieDbException ex) {
+                    checkTempError(throwTempError, ex);
+                    LOG.error("Failed to get person info using TMDb ID {}: {}", tmdbId, ex.getMessage());
+                    LOG.trace(API_ERROR, ex);
+                }
+                return null;
+            }
+        });
     }
 
-    public MovieInfo getMovieInfoByTMDB(int tmdbId, Locale locale, boolean throwTempError) {
-        MovieInfo movieInfo = null;
-        try {
-            movieInfo = tmdbApi.getMovieInfo(tmdbId, locale.getLanguage(), MethodSub.RELEASES.getValue(), MethodSub.CREDITS.getValue());
-        } catch (MovieDbException ex) {
-            checkTempError(throwTempError, ex);
-            LOG.error("Failed to get movie info using TMDb ID {}: {}", tmdbId, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
-        }
-        return movieInfo;
+    public MovieInfo getMovieInfoByTMDB(final int tmdbId, final Locale locale, final boolean throwTempError) {
+        return getCoalesced(movieInfoKey(tmdbId, locale), MovieInfo.class, new Loader<MovieInfo>() {
+            @Override
+            public MovieInfo load() {
+                MovieInfo movieInfo = infoStore.get(ChangeType.MOVIE, tmdbId, locale.getLanguage(), MovieInfo.class);
+                if (movieInfo == null) {
+                    try {
+                        movieInfo = tmdbApi.getMovieInfo(tmdbId, locale.getLanguage(), MethodSub.RELEASES.getValue(), MethodSub.CREDITS.getValue());
+                        if (movieInfo == null || movieInfo.getId() <= 0) {
+                            return null;
+                        }
+                        infoStore.store(ChangeType.MOVIE, tmdbId, locale.getLanguage(), movieInfo);
+                    } catch (MovieDbException ex) {
+                        checkTempError(throwTempError, ex);
+                        LOG.error("Failed to get movie info using TMDb ID {}: {}", tmdbId, ex.getMessage());
+                        LOG.trace(API_ERROR, ex);
+                        return null;
+                    }
+                }
+                
+                // movie info is also reachable by the IMDb ID
+                if (StringUtils.isNotBlank(movieInfo.getImdbID())) {
+                    cache.store(movieImdbKey(movieInfo.getImdbID(), locale), movieInfo);
+                }
+                return movieInfo;
+            }
+        });
     }
 
-    public TVInfo getSeriesInfo(int tmdbId, Locale locale, boolean throwTempError) {
-        TVInfo tvInfo = null;
-        try {
-            tvInfo = tmdbApi.getTVInfo(tmdbId, locale.getLanguage(), MethodSub.EXTERNAL_IDS.getValue());
-        } catch (MovieDbException ex) {
-            checkTempError(throwTempError, ex);
-            LOG.error("Failed to get series info using TMDb ID {}: {}", tmdbId, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
+    public TVInfo getSeriesInfo(final int tmdbId, final Locale locale, final boolean throwTempError) {
+        return getCoalesced("seriesinfo###"+tmdbId+"###"+locale.getLanguage(), TVInfo.class, new Loader<TVInfo>() {
+            @Override
+            public TVInfo load() {
+                TVInfo tvInfo = infoStore.get(ChangeType.TV, tmdbId, locale.getLanguage(), TVInfo.class);
+                if (tvInfo != null) {
+                    return tvInfo;
+                }
+                
+                try {
+                    tvInfo = tmdbApi.getTVInfo(tmdbId, locale.getLanguage(), MethodSub.EXTERNAL_IDS.getValue());
+                    if (tvInfo != null && tvInfo.getId() > 0) {
+                        infoStore.store(ChangeType.TV, tmdbId, locale.getLanguage(), tvInfo);
+                        return tvInfo;
+                    }
+                } catch (MovieDbException ex) {
+                    checkTempError(throwTempError, ex);
+                    LOG.error("Failed to get series info using TMDb ID {}: {}", tmdbId, ex.getMessage());
+                    LOG.trace(API_ERROR, ex);
+                }
+                return null;
+            }
+        });
+    }
+
+    public TVSeasonInfo getSeasonInfo(final String tmdbId, final int season, final Locale locale) {
+        if (!StringUtils.isNumeric(tmdbId)) {
+            return null;
         }
-        return tvInfo;
+        
+        return getCoalesced("seasonbasic###"+tmdbId+"###"+season+"###"+locale.getLanguage(), TVSeasonInfo.class, new Loader<TVSeasonInfo>() {
+            @Override
+            public TVSeasonInfo load() {
+                try {
+                    TVSeasonInfo tvSeasonInfo = tmdbApi.getSeasonInfo(Integer.parseInt(tmdbId), season, locale.getLanguage());
+                    if (tvSeasonInfo != null && tvSeasonInfo.getId() > 0) {
+                        return tvSeasonInfo;
+                    }
+                } catch (MovieDbException ex) {
+                    LOG.error("Failed to get episodes using TMDb ID {} and season {}: {}", tmdbId, season, ex.getMessage());
+                    LOG.trace(API_ERROR, ex);
+                }
+                return null;
+            }
+        });
     }
 
-    public TVSeasonInfo getSeasonInfo(String tmdbId, int season, Locale locale) {
-        TVSeasonInfo tvSeasonInfo = null;
-        if (StringUtils.isNumeric(tmdbId)) {
-            try {
-                tvSeasonInfo = tmdbApi.getSeasonInfo(Integer.parseInt(tmdbId), season, locale.getLanguage());
-            } catch (MovieDbException ex) {
-                LOG.error("Failed to get episodes using TMDb ID {} and season {}: {}", tmdbId, season, ex.getMessage());
-                LOG.trace(API_ERROR, ex);
+    public TheMovieDbSeason getSeason(final String tmdbId, final int season, final Locale locale) {
+        if (!StringUtils.isNumeric(tmdbId)) {
+            return null;
+        }
+
+        // all episodes of the season share the parsed season
+        return getCoalesced("seasoninfo###"+tmdbId+"###"+season+"###"+locale.getLanguage(), TheMovieDbSeason.class, new Loader<TheMovieDbSeason>() {
+            @Override
+            public TheMovieDbSeason load() {
+                // season changes are tracked with the changes of the series
+                final int seriesId = Integer.parseInt(tmdbId);
+                final String variant = "season-" + season + "-" + locale.getLanguage();
+                TheMovieDbSeason tmdbSeason = infoStore.get(ChangeType.TV, seriesId, variant, TheMovieDbSeason.class);
+                if (tmdbSeason != null) {
+                    return tmdbSeason;
+                }
+                
+                try {
+                    // the episodes of the season payload already contain guest stars and crew
+                    TVSeasonInfo tvSeasonInfo = tmdbApi.getSeasonInfo(seriesId, season, locale.getLanguage(), MethodSub.CREDITS.getValue());
+                    if (tvSeasonInfo != null && tvSeasonInfo.getId() > 0) {
+                        tmdbSeason = new TheMovieDbSeason(tvSeasonInfo);
+                        infoStore.store(ChangeType.TV, seriesId, variant, tmdbSeason);
+                        return tmdbSeason;
+                    }
+                } catch (MovieDbException ex) {
+                    LOG.error("Failed to get season using TMDb ID {} and season {}: {}", tmdbId, season, ex.getMessage());
+                    LOG.trace(API_ERROR, ex);
+                }
+                return null;
             }
+        });
+    }
+
+    public TVEpisodeInfo getEpisodeInfo(final String tmdbId, final int season, final int episode, final Locale locale) {
+        if (!StringUtils.isNumeric(tmdbId)) {
+            return null;
         }
-        return tvSeasonInfo;
+        
+        return getCoalesced("episodeinfo###"+tmdbId+"###"+season+"###"+episode+"###"+locale.getLanguage(), TVEpisodeInfo.class, new Loader<TVEpisodeInfo>() {
+            @Override
+            public TVEpisodeInfo load() {
+                try {
+                    TVEpisodeInfo tvEpisodeInfo = tmdbApi.getEpisodeInfo(Integer.parseInt(tmdbId), season, episode, locale.getLanguage(), MethodSub.CREDITS.getValue(), MethodSub.EXTERNAL_IDS.getValue());
+                    if (tvEpisodeInfo != null && tvEpisodeInfo.getId() > 0) {
+                        return tvEpisodeInfo;
+                    }
+                } catch (MovieDbException ex) {
+                    LOG.error("Failed to get episodes using TMDb ID {} and season {}: {}", tmdbId, season, ex.getMessage());
+                    LOG.trace(API_ERROR, ex);
+                }
+                return null;
+            }
+        });
     }
 
-    public TVEpisodeInfo getEpisodeInfo(String tmdbId, int season, int episode, Locale locale) {
-        TVEpisodeInfo tvEpisodeInfo = null;
-        if (StringUtils.isNumeric(tmdbId)) {
-            try {
-                tvEpisodeInfo = tmdbApi.getEpisodeInfo(Integer.parseInt(tmdbId), season, episode, locale.getLanguage(), MethodSub.CREDITS.getValue(), MethodSub.EXTERNAL_IDS.getValue());
-            } catch (MovieDbException ex) {
-                LOG.error("Failed to get episodes using TMDb ID {} and season {}: {}", tmdbId, season, ex.getMessage());
-                LOG.trace(API_ERROR, ex);
+    public TVEpisodeInfo getEpisodeExternalIDs(final String tmdbId, final int season, final int episode) {
+        if (!StringUtils.isNumeric(tmdbId)) {
+            return null;
+        }
+        
+        return getCoalesced("episodeids###"+tmdbId+"###"+season+"###"+episode, TVEpisodeInfo.class, new Loader<TVEpisodeInfo>() {
+            @Override
+            public TVEpisodeInfo load() {
+                final int seriesId = Integer.parseInt(tmdbId);
+                final String variant = "ids-" + season + "-" + episode;
+                TVEpisodeInfo tvEpisodeInfo = infoStore.get(ChangeType.TV, seriesId, variant, TVEpisodeInfo.class);
+                if (tvEpisodeInfo != null) {
+                    return tvEpisodeInfo;
+                }
+                
+                try {
+                    // external IDs are not part of the season payload
+                    tvEpisodeInfo = tmdbApi.getEpisodeInfo(seriesId, season, episode, NO_LANGUAGE, MethodSub.EXTERNAL_IDS.getValue());
+                    if (tvEpisodeInfo != null && tvEpisodeInfo.getId() > 0) {
+                        infoStore.store(ChangeType.TV, seriesId, variant, tvEpisodeInfo);
+                        return tvEpisodeInfo;
+                    }
+                } catch (MovieDbException ex) {
+                    LOG.error("Failed to get external IDs using TMDb ID {}, season {} and episode {}: {}", tmdbId, season, episode, ex.getMessage());
+                    LOG.trace(API_ERROR, ex);
+                }
+                return null;
             }
+        });
+    }
+
+    public MovieInfo getMovieInfoByIMDB(final String imdbId, final Locale locale, final boolean throwTempError) {
+        if (StringUtils.isBlank(imdbId)) {
+            return null;
         }
-        return tvEpisodeInfo;
+        
+        return getCoalesced(movieImdbKey(imdbId, locale), MovieInfo.class, new Loader<MovieInfo>() {
+            @Override
+            public MovieInfo load() {
+                try {
+                    MovieInfo movieInfo = tmdbApi.getMovieInfoImdb(imdbId, locale.getLanguage(), MethodSub.RELEASES.getValue(), MethodSub.CREDITS.getValue());
+                    if (movieInfo != null && movieInfo.getId() > 0) {
+                        // movie info is also reachable by the TMDb ID, so the following scan needs no request
+                        cache.store(movieInfoKey(movieInfo.getId(), locale), movieInfo);
+                        infoStore.store(ChangeType.MOVIE, movieInfo.getId(), locale.getLanguage(), movieInfo);
+                        return movieInfo;
+                    }
+                } catch (MovieDbException ex) {
+                    checkTempError(throwTempError, ex);
+                    LOG.error("Failed to get movie info using IMDb ID {}: {}", imdbId, ex.getMessage());
+                    LOG.trace(API_ERROR, ex);
+                }
+                return null;
+            }
+        });
+    }
+
+    private static String movieInfoKey(int tmdbId, Locale locale) {
+        return "movieinfo###"+tmdbId+"###"+locale.getLanguage();
     }
 
-    public MovieInfo getMovieInfoByIMDB(String imdbId, Locale locale, boolean throwTempError) {
-        MovieInfo movieInfo = null;
+    private static String movieImdbKey(String imdbId, Locale locale) {
+        return "movieimdb###"+imdbId+"###"+locale.getLanguage();
+    }
+
+    /**
+     * Get a cached value or load it. Concurrent callers for the same key wait for one load.
+     * 
+     * @param cacheKey the cache key
+     * @param resultClass the class of the result
+     * @param loader the loader to use if the value is not cached
+     * @return the value, may be null
+     */
+    private <T> T getCoalesced(final String cacheKey, final Class<T> resultClass, final Loader<? extends T> loader) {
+        T result = cache.get(cacheKey, resultClass);
+        if (result != null) {
+            return result;
+        }
+        
+        FutureTask<?> load = new FutureTask<>(new Callable<T>() {
+            @Override
+            public T call() {
+                // may have been stored while waiting
+                T value = cache.get(cacheKey, resultClass);
+                if (value == null) {
+                    value = loader.load();
+                    if (value != null) {
+                        cache.store(cacheKey, value);
+                    }
+                }
+                return value;
+            }
+        });
+
+        final FutureTask<?> running = pending.putIfAbsent(cacheKey, load);
+        if (running != null) {
+            load = running;
+        }
+        
         try {
-            movieInfo = tmdbApi.getMovieInfoImdb(imdbId, locale.getLanguage(), MethodSub.RELEASES.getValue(), MethodSub.CREDITS.getValue());
-        } catch (MovieDbException ex) {
-            checkTempError(throwTempError, ex);
-            LOG.error("Failed to get movie info using IMDb ID {}: {}", imdbId, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
+            // no-op if load is already running or done
+            load.run();
+            return resultClass.cast(load.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PluginExtensionException("TheMovieDb request has been interrupted", ex);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PluginExtensionException("TheMovieDb request failed", cause);
+        } finally {
+            pending.remove(cacheKey, load);
         }
-        return movieInfo;
     }
 
     public PersonCreditList<CreditBasic> getPersonCredits(int tmdbId, Locale locale, boolean throwTempError) {
@@ -316,85 +537,53 @@ public class TheMovieDbApiWrapper {
         return null; //NOSONAR
     }
     
-    public URL createImageURL(Artwork artwork, String requiredSize) throws MovieDbException {
-        return tmdbApi.createImageUrl(artwork.getFilePath(), requiredSize);
+    public URL createImageURL(String filePath, String requiredSize) throws MovieDbException {
+        return tmdbApi.createImageUrl(filePath, requiredSize);
     }
 
-    @SuppressWarnings("unchecked")
-	public ResultList<Artwork> getMovieImages(int tmdbId) {
-        try {
-            final String cacheKey = "movie###"+tmdbId;
-            ResultList<Artwork> resultList = cache.get(cacheKey, ResultList.class);
-            if (resultList == null || resultList.isEmpty()) {
+    public TheMovieDbArtworks getMovieImages(final int tmdbId) {
+        return getImages("movie###"+tmdbId, "movie images for TMDb ID "+tmdbId, new ImageRequest() {
+            @Override
+            public ResultList<Artwork> request() throws MovieDbException {
                 // use an empty language to get all artwork and then filter it
-                resultList = tmdbApi.getMovieImages(tmdbId, NO_LANGUAGE);
-                cache.store(cacheKey, resultList);
+                return tmdbApi.getMovieImages(tmdbId, NO_LANGUAGE);
             }
-            return resultList;
-        } catch (MovieDbException ex) {
-            LOG.error("Failed to get movie images for TMDb ID {}: {}", tmdbId, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
-            return null;
-        }
+        });
     }
 
-    @SuppressWarnings("unchecked")
-	public ResultList<Artwork> getSeriesImages(int tmdbId) {
-        try {
-            final String cacheKey = "series###"+tmdbId;
-            ResultList<Artwork> resultList = cache.get(cacheKey, ResultList.class);
-            if (resultList == null || resultList.isEmpty()) {
+    public TheMovieDbArtworks getSeriesImages(final int tmdbId) {
+        return getImages("series###"+tmdbId, "series images for TMDb ID "+tmdbId, new ImageRequest() {
+            @Override
+            public ResultList<Artwork> request() throws MovieDbException {
                 // use an empty language to get all artwork and then filter it
-                resultList = tmdbApi.getTVImages(tmdbId, NO_LANGUAGE);
-                cache.store(cacheKey, resultList);
+                return tmdbApi.getTVImages(tmdbId, NO_LANGUAGE);
             }
-            return resultList;
-        } catch (MovieDbException ex) {
-            LOG.error("Failed to get series images for TMDb ID {}: {}", tmdbId, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
-            return null;
-        }
+        });
     }
 
-    @SuppressWarnings("unchecked")
-	public ResultList<Artwork> getSeasonImages(int tmdbId, int season) {
-        try {
-            final String cacheKey = "season###"+tmdbId+"###"+season;
-            ResultList<Artwork> resultList = cache.get(cacheKey, ResultList.class);
-            if (resultList == null || resultList.isEmpty()) {
+    public TheMovieDbArtworks getSeasonImages(final int tmdbId, final int season) {
+        return getImages("season###"+tmdbId+"###"+season, "season images for TMDb ID "+tmdbId+" and season "+season, new ImageRequest() {
+            @Override
+            public ResultList<Artwork> request() throws MovieDbException {
                 // use an empty language to get all artwork and then filter it
-                resultList = tmdbApi.getSeasonImages(tmdbId, season, NO_LANGUAGE);
-                cache.store(cacheKey, resultList);
+                return tmdbApi.getSeasonImages(tmdbId, season, NO_LANGUAGE);
             }
-            return resultList;
-        } catch (MovieDbException ex) {
-            LOG.error("Failed to get season images for TMDb ID {} and season {}: {}", tmdbId, season, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
-            return null;
-        }
+        });
     }
 
-    @SuppressWarnings("unchecked")
-	public ResultList<Artwork> getEpisodeImages(int tmdbId, int season, int episode) {
-        try {
-            final String cacheKey = "episode###"+tmdbId+"###"+season+"###"+episode;
-            ResultList<Artwork> resultList = cache.get(cacheKey, ResultList.class);
-            if (resultList == null || resultList.isEmpty()) {
-                // use an empty language to get all artwork and then filter it
-                resultList = tmdbApi.getEpisodeImages(tmdbId, season, episode);
-                cache.store(cacheKey, resultList);
+    public TheMovieDbArtworks getEpisodeImages(final int tmdbId, final int season, final int episode) {
+        return getImages("episode###"+tmdbId+"###"+season+"###"+episode, "episode images for TMDb ID "+tmdbId+", season "+season+" and episode "+episode, new ImageRequest() {
+            @Override
+            public ResultList<Artwork> request() throws MovieDbException {
+                return tmdbApi.getEpisodeImages(tmdbId, season, episode);
             }
-            return resultList;
-        } catch (MovieDbException ex) {
-            LOG.error("Failed to get episode images for TMDb ID {} and season {} and episode: {}", tmdbId, season, episode, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
-            return null;
-        }
+        });
     }
 
-    public ResultList<Artwork> getPersonImages(int tmdbId) {
+    public TheMovieDbArtworks getPersonImages(int tmdbId) {
         try {
-            return tmdbApi.getPersonImages(tmdbId);
+            final ResultList<Artwork> resultList = tmdbApi.getPersonImages(tmdbId);
+            return resultList == null ? null : new TheMovieDbArtworks(resultList.getResults());
         } catch (MovieDbException ex) {
             LOG.error("Failed to get person images for TMDb ID {}: {}", tmdbId, ex.getMessage());
             LOG.trace(API_ERROR, ex);
@@ -402,21 +591,86 @@ public class TheMovieDbApiWrapper {
         }
     }
     
-    @SuppressWarnings("unchecked")
-	public ResultList<Artwork> getCollectionImages(int tmdbId) {
-        try {
-            final String cacheKey = "boxset###"+tmdbId;
-            ResultList<Artwork> resultList = cache.get(cacheKey, ResultList.class);
-            if (resultList == null || resultList.isEmpty()) {
+    public TheMovieDbArtworks getCollectionImages(final int tmdbId) {
+        return getImages("boxset###"+tmdbId, "collection images for TMDb ID "+tmdbId, new ImageRequest() {
+            @Override
+            public ResultList<Artwork> request() throws MovieDbException {
                 // use an empty language to get all artwork and then filter it
-                resultList = tmdbApi.getCollectionImages(tmdbId, NO_LANGUAGE);
-                cache.store(cacheKey, resultList);
+                return tmdbApi.getCollectionImages(tmdbId, NO_LANGUAGE);
+            }
+        });
+    }
+
+    /**
+     * Get cached images or request them.
+     * 
+     * Empty results and failed requests are remembered as misses, so that they are not requested
+     * again before the negative TTL respectively the failure backoff elapsed.
+     * 
+     * @param cacheKey the cache key
+     * @param description the description of the images for logging
+     * @param imageRequest the request to use if the images are not cached
+     * @return the compact projection of the images, or null if no images are available
+     */
+    private TheMovieDbArtworks getImages(final String cacheKey, final String description, final ImageRequest imageRequest) {
+        return getCoalesced(cacheKey, TheMovieDbArtworks.class, new Loader<TheMovieDbArtworks>() {
+            @Override
+            public TheMovieDbArtworks load() {
+                if (isImageMiss(cacheKey)) {
+                    LOG.trace("No {} within miss period", description);
+                    return null;
+                }
+                
+                try {
+                    final ResultList<Artwork> resultList = imageRequest.request();
+                    // only the compact projection is cached, not the library objects
+                    final TheMovieDbArtworks artworks = resultList == null ? null : new TheMovieDbArtworks(resultList.getResults());
+                    if (artworks == null || artworks.isEmpty()) {
+                        final long negativeMillis = TimeUnit.HOURS.toMillis(configService.getIntProperty("themoviedb.images.negative.hours", 24));
+                        addImageMiss(cacheKey, negativeMillis);
+                        return null;
+                    }
+                    return artworks;
+                } catch (MovieDbException ex) {
+                    final long failureMillis = TimeUnit.SECONDS.toMillis(configService.getIntProperty("themoviedb.images.failure.seconds", 120));
+                    addImageMiss(cacheKey, failureMillis);
+                    LOG.error("Failed to get {}: {}", description, ex.getMessage());
+                    LOG.trace(API_ERROR, ex);
+                    return null;
+                }
+            }
+        });
+    }
+
+    private boolean isImageMiss(String cacheKey) {
+        synchronized (imageMisses) {
+            final Long expires = imageMisses.get(cacheKey);
+            if (expires == null) {
+                return false;
+            }
+            if (expires.longValue() > System.currentTimeMillis()) {
+                return true;
+            }
+            imageMisses.remove(cacheKey);
+            return false;
+        }
+    }
+
+    private void addImageMiss(String cacheKey, long millis) {
+        if (millis > 0) {
+            synchronized (imageMisses) {
+                imageMisses.put(cacheKey, System.currentTimeMillis() + millis);
             }
-            return resultList;
-        } catch (MovieDbException ex) {
-            LOG.error("Failed to get collection images for TMDb ID {}: {}", tmdbId, ex.getMessage());
-            LOG.trace(API_ERROR, ex);
-            return null;
         }
     }
+
+    private interface Loader<T> {
+
+        T load();
+    }
+
+    private interface ImageRequest {
+
+        ResultList<Artwork> request() throws MovieDbException;
+    }
 }
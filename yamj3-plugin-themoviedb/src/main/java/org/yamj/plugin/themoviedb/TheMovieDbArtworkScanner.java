@@ -27,14 +27,11 @@ import static org.yamj.plugin.api.Constants.SOURCE_TMDB;
 
 import com.omertron.themoviedbapi.MovieDbException;
 import com.omertron.themoviedbapi.enumeration.ArtworkType;
-import com.omertron.themoviedbapi.model.artwork.Artwork;
 import com.omertron.themoviedbapi.model.collection.Collection;
-import com.omertron.themoviedbapi.results.ResultList;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamj.plugin.api.artwork.*;
@@ -59,8 +56,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
         }
 
         final Locale locale = localeService.getLocale();
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getMovieImages(Integer.parseInt(tmdbId));
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.POSTER, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getMovieImages(Integer.parseInt(tmdbId));
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.POSTER, DEFAULT_SIZE);
     }
 
     @Override
@@ -72,8 +69,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
         }
         
         final Locale locale = localeService.getLocale();
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getMovieImages(Integer.parseInt(tmdbId));
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.BACKDROP, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getMovieImages(Integer.parseInt(tmdbId));
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.BACKDROP, DEFAULT_SIZE);
     }
 
     @Override
@@ -85,8 +82,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
         }
         
         final Locale locale = localeService.getLocale();
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getSeasonImages(Integer.parseInt(tmdbId), season.getNumber());
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.POSTER, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getSeasonImages(Integer.parseInt(tmdbId), season.getNumber());
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.POSTER, DEFAULT_SIZE);
     }
 
     @Override
@@ -98,8 +95,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
         }
 
         final Locale locale = localeService.getLocale();
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getSeriesImages(Integer.parseInt(tmdbId));
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.POSTER, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getSeriesImages(Integer.parseInt(tmdbId));
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.POSTER, DEFAULT_SIZE);
     }
 
     @Override
@@ -111,8 +108,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
         }
 
         final Locale locale = localeService.getLocale();
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getSeasonImages(Integer.parseInt(tmdbId), season.getNumber());
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.BACKDROP, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getSeasonImages(Integer.parseInt(tmdbId), season.getNumber());
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.BACKDROP, DEFAULT_SIZE);
     }
 
     @Override
@@ -124,8 +121,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
         }
         
         final Locale locale = localeService.getLocale();
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getSeriesImages(Integer.parseInt(tmdbId));
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.BACKDROP, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getSeriesImages(Integer.parseInt(tmdbId));
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.BACKDROP, DEFAULT_SIZE);
     }
 
     @Override
@@ -147,8 +144,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
         }
 
         final Locale locale = localeService.getLocale();
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getEpisodeImages(Integer.parseInt(tmdbId), episode.getSeason().getNumber(), episode.getNumber());
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.STILL, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getEpisodeImages(Integer.parseInt(tmdbId), episode.getSeason().getNumber(), episode.getNumber());
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.STILL, DEFAULT_SIZE);
     }
 
     @Override
@@ -159,8 +156,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
             return null; //NOSONAR
         }
         
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getPersonImages(Integer.parseInt(tmdbId));
-        return this.filterArtwork(tmdbId, resultList, TheMovieDbApiWrapper.NO_LANGUAGE, ArtworkType.PROFILE, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getPersonImages(Integer.parseInt(tmdbId));
+        return this.filterArtwork(tmdbId, artworks, TheMovieDbApiWrapper.NO_LANGUAGE, ArtworkType.PROFILE, DEFAULT_SIZE);
     }
 
     @Override
@@ -179,8 +176,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
             id = Integer.parseInt(tmdbId);
         }
 
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getCollectionImages(id);
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.POSTER, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getCollectionImages(id);
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.POSTER, DEFAULT_SIZE);
     }
 
     @Override
@@ -199,8 +196,8 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
             id = Integer.parseInt(tmdbId);
         }
 
-        ResultList<Artwork> resultList = theMovieDbApiWrapper.getCollectionImages(id);
-        return this.filterArtwork(tmdbId, resultList, locale.getLanguage(), ArtworkType.BACKDROP, DEFAULT_SIZE);
+        TheMovieDbArtworks artworks = theMovieDbApiWrapper.getCollectionImages(id);
+        return this.filterArtwork(tmdbId, artworks, locale.getLanguage(), ArtworkType.BACKDROP, DEFAULT_SIZE);
     }
 
     @Override
@@ -218,31 +215,22 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
      * @param artworkSize
      * @return
      */
-    private List<ArtworkDTO> filterArtwork(String tmdbId, ResultList<Artwork> resultList, String language, ArtworkType artworkType, String artworkSize) {
+    private List<ArtworkDTO> filterArtwork(String tmdbId, TheMovieDbArtworks artworks, String language, ArtworkType artworkType, String artworkSize) {
         List<ArtworkDTO> dtos = new ArrayList<>();
 
-        if (resultList == null || resultList.isEmpty()) {
+        if (artworks == null || artworks.isEmpty()) {
             LOG.debug("Got no {} artworks from TMDb for id {}", artworkType, tmdbId);
         } else {
-            final List<Artwork> artworkList = resultList.getResults();
-            LOG.debug("Got {} {} artworks from TMDb for id {}", artworkList.size(), artworkType, tmdbId);
+            LOG.debug("Got {} {} artworks from TMDb for id {}", artworks.size(), artworkType, tmdbId);
             
-            for (Artwork artwork : artworkList) {
-                if (artwork.getArtworkType() == artworkType
-                    && (StringUtils.isBlank(artwork.getLanguage()) // no language
-                        || "xx".equalsIgnoreCase(artwork.getLanguage()) // another marker for no language
-                        || artwork.getLanguage().equalsIgnoreCase(language))) // defined language
-                {
-                    this.addArtworkDTO(dtos, artwork, artworkType, artworkSize);
-                }
+            for (String filePath : artworks.getFilePaths(artworkType, language, true)) {
+                this.addArtworkDTO(dtos, filePath, artworkType, artworkSize);
             }
             
             if (dtos.isEmpty() && !LANGUAGE_EN.equalsIgnoreCase(language)) {
                 // retrieve by English
-                for (Artwork artwork : artworkList) {
-                    if (artwork.getArtworkType() == artworkType && StringUtils.equalsIgnoreCase(artwork.getLanguage(), LANGUAGE_EN)) {
-                        this.addArtworkDTO(dtos, artwork, artworkType, artworkSize);
-                    }
+                for (String filePath : artworks.getFilePaths(artworkType, LANGUAGE_EN, false)) {
+                    this.addArtworkDTO(dtos, filePath, artworkType, artworkSize);
                 }
             }
             
@@ -252,9 +240,9 @@ public final class TheMovieDbArtworkScanner extends AbstractTheMovieDbScanner
         return dtos;
     }
     
-    private void addArtworkDTO(List<ArtworkDTO> dtos, Artwork artwork, ArtworkType artworkType, String artworkSize) {
+    private void addArtworkDTO(List<ArtworkDTO> dtos, String filePath, ArtworkType artworkType, String artworkSize) {
         try {
-            URL artworkURL = theMovieDbApiWrapper.createImageURL(artwork, artworkSize);
+            URL artworkURL = theMovieDbApiWrapper.createImageURL(filePath, artworkSize);
             if (artworkURL == null || artworkURL.toString().endsWith("null")) {
                 LOG.warn("{} URL is invalid and will not be used: {}", artworkType, artworkURL);
             } else {
@@ -0,0 +1,174 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.themoviedb;
+
+import com.omertron.themoviedbapi.enumeration.ArtworkType;
+import com.omertron.themoviedbapi.model.artwork.Artwork;
+import java.io.Serializable;
+import java.util.*;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Compact projection of the artwork of a title.
+ *
+ * Only the file paths are kept; they are grouped by artwork type and language when the
+ * projection is created, so that a lookup needs no scan over all artwork. The language
+ * code is held as small int.
+ */
+public final class TheMovieDbArtworks implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    static final int NO_LANGUAGE = 0;
+    private static final int[] NO_INDEXES = new int[0];
+
+    private final Map<ArtworkType, Group> groups = new EnumMap<>(ArtworkType.class);
+    private final int size;
+
+    public TheMovieDbArtworks(List<Artwork> artworks) {
+        final Map<ArtworkType, GroupBuilder> builders = new EnumMap<>(ArtworkType.class);
+        for (Artwork artwork : artworks) {
+            if (artwork.getArtworkType() == null || StringUtils.isBlank(artwork.getFilePath())) {
+                continue;
+            }
+            GroupBuilder builder = builders.get(artwork.getArtworkType());
+            if (builder == null) {
+                builder = new GroupBuilder();
+                builders.put(artwork.getArtworkType(), builder);
+            }
+            builder.add(toLanguageCode(artwork.getLanguage()), artwork.getFilePath());
+        }
+
+        int count = 0;
+        for (Map.Entry<ArtworkType, GroupBuilder> entry : builders.entrySet()) {
+            final Group group = entry.getValue().build();
+            this.groups.put(entry.getKey(), group);
+            count += group.filePaths.length;
+        }
+        this.size = count;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the file paths of an artwork type.
+     *
+     * @param artworkType the artwork type
+     * @param language the language
+     * @param withoutLanguage true to include artwork without language
+     * @return the file paths in the order delivered by TMDb
+     */
+    public List<String> getFilePaths(ArtworkType artworkType, String language, boolean withoutLanguage) {
+        final Group group = groups.get(artworkType);
+        if (group == null) {
+            return Collections.emptyList();
+        }
+
+        final int languageCode = toLanguageCode(language);
+        final int[] languageIndexes = group.getIndexes(languageCode);
+        final int[] otherIndexes = withoutLanguage && languageCode != NO_LANGUAGE ? group.getIndexes(NO_LANGUAGE) : NO_INDEXES;
+
+        // merge both buckets to keep the original order
+        final List<String> filePaths = new ArrayList<>(languageIndexes.length + otherIndexes.length);
+        int l = 0;
+        int o = 0;
+        while (l < languageIndexes.length || o < otherIndexes.length) {
+            if (o >= otherIndexes.length || (l < languageIndexes.length && languageIndexes[l] < otherIndexes[o])) {
+                filePaths.add(group.filePaths[languageIndexes[l++]]);
+            } else {
+                filePaths.add(group.filePaths[otherIndexes[o++]]);
+            }
+        }
+        return filePaths;
+    }
+
+    /**
+     * Get the code of a language.
+     *
+     * @param language the ISO 639-1 language
+     * @return the code; blank languages and "xx" result in NO_LANGUAGE
+     */
+    static int toLanguageCode(String language) {
+        if (StringUtils.isBlank(language) || "xx".equalsIgnoreCase(language)) {
+            return NO_LANGUAGE;
+        }
+        final String lower = language.trim().toLowerCase(Locale.ENGLISH);
+        if (lower.length() == 2) {
+            // two letters fit into 16 bits
+            return (lower.charAt(0) << 8) | lower.charAt(1);
+        }
+        // never collides with the two letter codes
+        return lower.hashCode() | 0x40000000;
+    }
+
+    private static final class Group implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String[] filePaths;
+        private final Map<Integer, int[]> indexes;
+
+        public Group(String[] filePaths, Map<Integer, int[]> indexes) {
+            this.filePaths = filePaths;
+            this.indexes = indexes;
+        }
+
+        public int[] getIndexes(int languageCode) {
+            final int[] result = indexes.get(languageCode);
+            return result == null ? NO_INDEXES : result;
+        }
+    }
+
+    private static final class GroupBuilder {
+
+        private final List<String> filePaths = new ArrayList<>();
+        private final Map<Integer, List<Integer>> indexes = new HashMap<>();
+
+        public void add(int languageCode, String filePath) {
+            List<Integer> list = indexes.get(languageCode);
+            if (list == null) {
+                list = new ArrayList<>();
+                indexes.put(languageCode, list);
+            }
+            list.add(filePaths.size());
+            filePaths.add(filePath);
+        }
+
+        public Group build() {
+            final Map<Integer, int[]> result = new HashMap<>(indexes.size());
+            for (Map.Entry<Integer, List<Integer>> entry : indexes.entrySet()) {
+                final int[] array = new int[entry.getValue().size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = entry.getValue().get(i);
+                }
+                result.put(entry.getKey(), array);
+            }
+            return new Group(filePaths.toArray(new String[filePaths.size()]), result);
+        }
+    }
+}
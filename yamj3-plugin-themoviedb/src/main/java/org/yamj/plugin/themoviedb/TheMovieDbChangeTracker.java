@@ -0,0 +1,350 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.themoviedb;
+
+import static org.yamj.api.common.tools.ResponseTools.isOK;
+import static org.yamj.plugin.api.Constants.UTF8;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yamj.api.common.http.CommonHttpClient;
+import org.yamj.api.common.http.DigestedResponse;
+
+/**
+ * Tracker of the TMDb changes feeds.
+ *
+ * The movie, TV and person change lists are pulled periodically starting at the last sync
+ * watermark. For every type and day a bitmap of the changed TMDb ids is kept and persisted,
+ * so that data fetched before can be served further on as long as its id has not changed
+ * since the day of the fetch.
+ */
+public class TheMovieDbChangeTracker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TheMovieDbChangeTracker.class);
+    private static final int FILE_VERSION = 1;
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    /** TMDb serves changes of the last 14 days only */
+    private static final int MAX_WINDOW_DAYS = 14;
+    private static final int MAX_PAGES = 1000;
+
+    public enum ChangeType {
+
+        MOVIE("movie"),
+        TV("tv"),
+        PERSON("person");
+
+        private final String path;
+
+        private ChangeType(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+
+    private final CommonHttpClient httpClient;
+    private final String baseUrl;
+    private final String apiKey;
+    private final File file;
+    private final int retentionDays;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile Snapshot snapshot = new Snapshot(0, 0, new EnumMap<ChangeType, SortedMap<Integer, BitSet>>(ChangeType.class));
+    private volatile long maxAgeMillis = DAY_MILLIS;
+    private volatile boolean active;
+
+    public TheMovieDbChangeTracker(CommonHttpClient httpClient, String baseUrl, String apiKey, File file, int retentionDays) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.file = file;
+        this.retentionDays = Math.max(1, Math.min(retentionDays, MAX_WINDOW_DAYS));
+    }
+
+    /**
+     * Load the persisted bitmaps and schedule the sync with the changes feeds.
+     *
+     * @param scheduler the scheduler to use
+     * @param refreshMillis the refresh interval in milliseconds
+     */
+    public void start(ScheduledExecutorService scheduler, long refreshMillis) {
+        load();
+        
+        // a watermark older than two refresh intervals can't be trusted anymore
+        this.maxAgeMillis = 2 * refreshMillis;
+        this.active = true;
+
+        final long initialDelay = Math.max(0, snapshot.lastSync + refreshMillis - System.currentTimeMillis());
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                sync();
+            }
+        }, initialDelay, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Indicates if the tracker has been started, so that fetched data is worth to be kept.
+     *
+     * @return true if active, else false
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Check if an item has not changed since it has been fetched.
+     *
+     * @param type the type of the item
+     * @param tmdbId the TMDb id of the item
+     * @param fetched the time the item has been fetched
+     * @return true if the item has not changed, false if it has changed or if this is unknown
+     */
+    public boolean isUnchanged(ChangeType type, int tmdbId, long fetched) {
+        final Snapshot current = snapshot;
+        if (!isCurrent(current) || tmdbId < 0) {
+            return false;
+        }
+
+        final int fetchDay = toDay(fetched);
+        if (fetchDay < current.firstDay) {
+            // fetched before the covered days
+            return false;
+        }
+
+        final SortedMap<Integer, BitSet> days = current.changes.get(type);
+        if (days != null) {
+            // the day of the fetch itself counts, cause changes are only known per day
+            for (BitSet changed : days.tailMap(fetchDay).values()) {
+                if (changed.get(tmdbId)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indicates if the tracker is in sync with the changes feeds, so that an item which is
+     * not confirmed as unchanged has really changed or is out of the covered days.
+     *
+     * @return true if synced within the maximum age, else false
+     */
+    public boolean isCurrent() {
+        return isCurrent(snapshot);
+    }
+
+    private boolean isCurrent(Snapshot current) {
+        // a changes feed synced longer ago is stale
+        return current.lastSync != 0 && System.currentTimeMillis() - current.lastSync <= maxAgeMillis;
+    }
+
+    /**
+     * Get the time of the last successful sync.
+     *
+     * @return the sync watermark in milliseconds or 0 if never synced
+     */
+    public long getLastSync() {
+        return snapshot.lastSync;
+    }
+
+    /**
+     * Sync with the changes feeds.
+     *
+     * All days from the day of the watermark up to today are requested; if one of the
+     * requests fails, the last state will be kept.
+     *
+     * @return true if the sync succeeded, else false
+     */
+    public synchronized boolean sync() {
+        final long now = System.currentTimeMillis();
+        final int today = toDay(now);
+        final Snapshot current = snapshot;
+
+        int startDay = current.lastSync == 0 ? today : toDay(current.lastSync);
+        int firstDay = current.firstDay;
+        final Map<ChangeType, SortedMap<Integer, BitSet>> changes = new EnumMap<>(ChangeType.class);
+        if (current.lastSync == 0 || today - startDay >= MAX_WINDOW_DAYS) {
+            // no continuous coverage, so start tracking from today on
+            LOG.debug("Start tracking of TMDb changes");
+            startDay = today;
+            firstDay = today;
+        } else {
+            for (Map.Entry<ChangeType, SortedMap<Integer, BitSet>> entry : current.changes.entrySet()) {
+                changes.put(entry.getKey(), new TreeMap<>(entry.getValue()));
+            }
+        }
+
+        try {
+            for (ChangeType type : ChangeType.values()) {
+                SortedMap<Integer, BitSet> days = changes.get(type);
+                if (days == null) {
+                    days = new TreeMap<>();
+                    changes.put(type, days);
+                }
+                for (int day = startDay; day <= today; day++) {
+                    // the changes of a day are requested again if the day was not over at the last sync
+                    days.put(day, requestChanges(type, day));
+                }
+                // remove days out of retention
+                days.headMap(today - retentionDays + 1).clear();
+            }
+        } catch (IOException ex) {
+            LOG.warn("Failed to sync TMDb changes, keeping last state: {}", ex.getMessage());
+            LOG.trace("TMDb changes error", ex);
+            return false;
+        }
+
+        firstDay = Math.max(firstDay, today - retentionDays + 1);
+        this.snapshot = new Snapshot(now, firstDay, changes);
+        LOG.debug("Synced TMDb changes from {} days", today - startDay + 1);
+        
+        save();
+        return true;
+    }
+
+    private BitSet requestChanges(ChangeType type, int day) throws IOException {
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        final String startDate = dateFormat.format(new Date(day * DAY_MILLIS));
+        final String endDate = dateFormat.format(new Date((day + 1) * DAY_MILLIS));
+
+        final BitSet changed = new BitSet();
+        int page = 1;
+        int totalPages = 1;
+        while (page <= totalPages && page <= MAX_PAGES) {
+            final String url = baseUrl + type.getPath() + "/changes?api_key=" + apiKey
+                            + "&start_date=" + startDate + "&end_date=" + endDate + "&page=" + page;
+            final DigestedResponse response = httpClient.requestContent(url, UTF8);
+            if (!isOK(response)) {
+                throw new IOException("Request of " + type.getPath() + " changes failed with status " + response.getStatusCode());
+            }
+
+            final JsonNode root = objectMapper.readTree(response.getContent());
+            for (JsonNode result : root.path("results")) {
+                final int id = result.path("id").asInt(-1);
+                if (id >= 0) {
+                    changed.set(id);
+                }
+            }
+            totalPages = root.path("total_pages").asInt(1);
+            page++;
+        }
+        return changed;
+    }
+
+    private static int toDay(long millis) {
+        return (int) (millis / DAY_MILLIS);
+    }
+
+    private void load() {
+        if (!file.isFile()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return;
+            }
+            final long lastSync = in.readLong();
+            final int firstDay = in.readInt();
+            final Map<ChangeType, SortedMap<Integer, BitSet>> changes = new EnumMap<>(ChangeType.class);
+            final int types = in.readInt();
+            for (int t = 0; t < types; t++) {
+                final ChangeType type = ChangeType.valueOf(in.readUTF());
+                final SortedMap<Integer, BitSet> days = new TreeMap<>();
+                final int count = in.readInt();
+                for (int d = 0; d < count; d++) {
+                    final int day = in.readInt();
+                    final long[] words = new long[in.readInt()];
+                    for (int w = 0; w < words.length; w++) {
+                        words[w] = in.readLong();
+                    }
+                    days.put(day, BitSet.valueOf(words));
+                }
+                changes.put(type, days);
+            }
+            this.snapshot = new Snapshot(lastSync, firstDay, changes);
+        } catch (IOException | IllegalArgumentException ex) {
+            LOG.warn("Failed to load TMDb changes: {}", ex.getMessage());
+            LOG.trace("TMDb changes error", ex);
+        }
+    }
+
+    private void save() {
+        final Snapshot current = snapshot;
+        try {
+            final File parent = file.getAbsoluteFile().getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Failed to create directory " + parent);
+            }
+
+            final File tempFile = File.createTempFile(file.getName(), ".tmp", parent);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeLong(current.lastSync);
+                out.writeInt(current.firstDay);
+                out.writeInt(current.changes.size());
+                for (Map.Entry<ChangeType, SortedMap<Integer, BitSet>> entry : current.changes.entrySet()) {
+                    out.writeUTF(entry.getKey().name());
+                    out.writeInt(entry.getValue().size());
+                    for (Map.Entry<Integer, BitSet> day : entry.getValue().entrySet()) {
+                        out.writeInt(day.getKey());
+                        final long[] words = day.getValue().toLongArray();
+                        out.writeInt(words.length);
+                        for (long word : words) {
+                            out.writeLong(word);
+                        }
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            LOG.warn("Failed to save TMDb changes: {}", ex.getMessage());
+            LOG.trace("TMDb changes error", ex);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long lastSync;
+        private final int firstDay;
+        private final Map<ChangeType, SortedMap<Integer, BitSet>> changes;
+
+        public Snapshot(long lastSync, int firstDay, Map<ChangeType, SortedMap<Integer, BitSet>> changes) {
+            this.lastSync = lastSync;
+            this.firstDay = firstDay;
+            this.changes = changes;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.themoviedb;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yamj.plugin.themoviedb.TheMovieDbChangeTracker.ChangeType;
+
+/**
+ * Long-lived store for fetched TMDb data.
+ *
+ * Data is kept GZIP compressed on disk and survives plugin restarts. Stored data is only
+ * served as long as the change tracker confirms that the TMDb id has not changed since the
+ * data has been fetched; data which has changed or expired is pruned.
+ */
+public class TheMovieDbInfoStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TheMovieDbInfoStore.class);
+    private static final int FILE_VERSION = 1;
+    private static final String FILE_EXTENSION = ".info";
+
+    private final File directory;
+    private final TheMovieDbChangeTracker changeTracker;
+
+    public TheMovieDbInfoStore(File directory, TheMovieDbChangeTracker changeTracker) {
+        this.directory = directory;
+        this.changeTracker = changeTracker;
+    }
+
+    /**
+     * Schedule the pruning of the store.
+     *
+     * @param scheduler the scheduler to use
+     * @param pruneMillis the prune interval in milliseconds
+     */
+    public void start(ScheduledExecutorService scheduler, long pruneMillis) {
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                prune();
+            }
+        }, pruneMillis, pruneMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get stored data.
+     *
+     * Data confirmed as unchanged gets the time of the last sync as new fetch time, so that
+     * it stays valid as long as it doesn't change. Changed or expired data is deleted.
+     *
+     * @param type the change type of the TMDb id
+     * @param tmdbId the TMDb id
+     * @param variant the variant of the data, like the language
+     * @param clazz the class of the data
+     * @return the stored data, or null if not stored or changed since stored
+     */
+    public <T> T get(ChangeType type, int tmdbId, String variant, Class<T> clazz) {
+        if (!changeTracker.isActive()) {
+            return null;
+        }
+
+        final File file = getFile(type, tmdbId, variant);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        // the sync before the check is covered by the check
+        final long lastSync = changeTracker.getLastSync();
+        final long fetched;
+        Object value = null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            fetched = in.readLong();
+            if (changeTracker.isUnchanged(type, tmdbId, fetched)) {
+                try (ObjectInputStream objects = new ObjectInputStream(new GZIPInputStream(in))) {
+                    value = objects.readObject();
+                }
+            }
+        } catch (IOException | ClassNotFoundException ex) {
+            LOG.warn("Failed to read stored {} {}: {}", type, tmdbId, ex.getMessage());
+            LOG.trace("Info store error", ex);
+            return null;
+        }
+
+        if (value == null) {
+            LOG.trace("Stored {} {} has changed", type, tmdbId);
+            if (changeTracker.isCurrent()) {
+                delete(file);
+            }
+            return null;
+        }
+
+        if (fetched < lastSync) {
+            renew(file, lastSync);
+        }
+        LOG.trace("Serve {} {} from store", type, tmdbId);
+        return clazz.isInstance(value) ? clazz.cast(value) : null;
+    }
+
+    /**
+     * Store fetched data.
+     *
+     * @param type the change type of the TMDb id
+     * @param tmdbId the TMDb id
+     * @param variant the variant of the data, like the language
+     * @param value the data to store; must be serializable
+     */
+    public void store(ChangeType type, int tmdbId, String variant, Object value) {
+        if (!changeTracker.isActive() || !(value instanceof Serializable)) {
+            return;
+        }
+
+        final long fetched = System.currentTimeMillis();
+        final File file = getFile(type, tmdbId, variant);
+        try {
+            final File parent = file.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Failed to create directory " + parent);
+            }
+
+            // write to temporary file first to never leave partial data behind
+            final File tempFile = File.createTempFile(file.getName(), ".tmp", parent);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeLong(fetched);
+                out.flush();
+                try (ObjectOutputStream objects = new ObjectOutputStream(new GZIPOutputStream(out))) {
+                    objects.writeObject(value);
+                }
+            } catch (IOException ex) {
+                Files.deleteIfExists(tempFile.toPath());
+                throw ex;
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            LOG.warn("Failed to store {} {}: {}", type, tmdbId, ex.getMessage());
+            LOG.trace("Info store error", ex);
+        }
+    }
+
+    /**
+     * Delete all stored data which has changed or expired.
+     *
+     * @return the number of deleted files
+     */
+    public int prune() {
+        if (!changeTracker.isCurrent()) {
+            // changes are unknown
+            return 0;
+        }
+
+        int deleted = 0;
+        for (ChangeType type : ChangeType.values()) {
+            final File[] subDirectories = new File(directory, type.getPath()).listFiles();
+            if (subDirectories == null) {
+                continue;
+            }
+            for (File subDirectory : subDirectories) {
+                final File[] files = subDirectory.listFiles();
+                if (files == null) {
+                    continue;
+                }
+                for (File file : files) {
+                    if (isExpired(type, file) && delete(file)) {
+                        deleted++;
+                    }
+                }
+            }
+        }
+        LOG.debug("Pruned {} stored TMDb entries", deleted);
+        return deleted;
+    }
+
+    private boolean isExpired(ChangeType type, File file) {
+        final String name = file.getName();
+        final int idEnd = name.indexOf('-');
+        if (!name.endsWith(FILE_EXTENSION) || idEnd <= 0) {
+            // left-over temporary file
+            return name.endsWith(".tmp") && file.lastModified() < System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return true;
+            }
+            return !changeTracker.isUnchanged(type, Integer.parseInt(name.substring(0, idEnd)), in.readLong());
+        } catch (IOException | NumberFormatException ex) {
+            LOG.trace("Invalid stored file {}: {}", file, ex.getMessage());
+            return true;
+        }
+    }
+
+    private static void renew(File file, long fetched) {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            // the fetch time follows the file version
+            out.seek(4);
+            out.writeLong(fetched);
+        } catch (IOException ex) {
+            LOG.trace("Failed to renew stored file {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private static boolean delete(File file) {
+        try {
+            return Files.deleteIfExists(file.toPath());
+        } catch (IOException ex) {
+            LOG.trace("Failed to delete stored file {}: {}", file, ex.getMessage());
+            return false;
+        }
+    }
+
+    private File getFile(ChangeType type, int tmdbId, String variant) {
+        // distribute files over sub directories by the last digits of the id
+        final String subDirectory = String.valueOf(tmdbId % 100);
+        final String fileName = tmdbId + "-" + variant.replaceAll("[^A-Za-z0-9_-]", "_") + FILE_EXTENSION;
+        return new File(new File(new File(directory, type.getPath()), subDirectory), fileName);
+    }
+}
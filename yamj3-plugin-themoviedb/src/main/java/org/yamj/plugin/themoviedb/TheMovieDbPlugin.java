@@ -25,13 +25,19 @@ package org.yamj.plugin.themoviedb;
 import static org.yamj.plugin.api.Constants.SOURCE_TMDB;
 
 import com.omertron.themoviedbapi.TheMovieDbApi;
+import java.io.File;
 import java.io.InputStream;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.config.PersistenceConfiguration;
 import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamj.api.common.http.CommonHttpClient;
@@ -45,7 +51,9 @@ import ro.fortsoft.pf4j.PluginWrapper;
 public class TheMovieDbPlugin extends Plugin implements NeedsConfigService, NeedsHttpClient {
     
     private static final Logger LOG = LoggerFactory.getLogger(TheMovieDbPlugin.class);
+    private static final String API_URL = "https://api.themoviedb.org/3/";
     private static TheMovieDbApiWrapper theMovieDbApiWrapper;
+    private ScheduledExecutorService scheduledExecutorService;
     private PluginConfigService configService;
     private CommonHttpClient httpClient;
     private CacheManager cacheManager;
@@ -68,6 +76,15 @@ public class TheMovieDbPlugin extends Plugin implements NeedsConfigService, Need
     public void start() throws PluginException {
         LOG.trace("Start TheMovieDbPlugin");
         
+        // load properties
+        try (InputStream stream = getClass().getResourceAsStream("/themoviedb.plugin.properties")) {
+            Properties props = new Properties();
+            props.load(stream);
+            configService.pluginConfiguration(props);
+        } catch (Exception ex) {
+            throw new PluginException("Failed to load themoviedb properties", ex);
+        }
+        
         // create API
         try (InputStream stream = getClass().getResourceAsStream("/themoviedb.apikey.properties")) {
             Properties props = new Properties();
@@ -91,19 +108,32 @@ public class TheMovieDbPlugin extends Plugin implements NeedsConfigService, Need
             // normally the YAMJ cache manager will be used
             cacheManager.addCache(cache);
             
-            theMovieDbApiWrapper = new TheMovieDbApiWrapper(tmdbApi, configService, cache);
+            // create tracker of the changes feeds which is synced in background if enabled
+            TheMovieDbChangeTracker changeTracker = new TheMovieDbChangeTracker(httpClient, API_URL, apiKey,
+                            new File(getDataDirectory(), "changes.idx"),
+                            configService.getIntProperty("themoviedb.changes.retention.days", 7));
+            if (configService.getBooleanProperty("themoviedb.changes.enabled", true)) {
+                scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "themoviedb-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+                changeTracker.start(scheduledExecutorService, TimeUnit.HOURS.toMillis(configService.getIntProperty("themoviedb.changes.refresh.hours", 6)));
+            }
+            
+            // create long-lived store for data which has not changed
+            TheMovieDbInfoStore infoStore = new TheMovieDbInfoStore(new File(getDataDirectory(), "info"), changeTracker);
+            if (changeTracker.isActive()) {
+                infoStore.start(scheduledExecutorService, TimeUnit.DAYS.toMillis(1));
+            }
+            
+            theMovieDbApiWrapper = new TheMovieDbApiWrapper(tmdbApi, configService, cache, infoStore);
         } catch (Exception ex) {
             throw new PluginException("Failed to create TheMovieDb api", ex);
         }
-        
-        // load properties
-        try (InputStream stream = getClass().getResourceAsStream("/themoviedb.plugin.properties")) {
-            Properties props = new Properties();
-            props.load(stream);
-            configService.pluginConfiguration(props);
-        } catch (Exception ex) {
-            throw new PluginException("Failed to load themoviedb properties", ex);
-        }
     }
 
     @Override
@@ -111,6 +141,18 @@ public class TheMovieDbPlugin extends Plugin implements NeedsConfigService, Need
         LOG.trace("Stop TheMovieDbPlugin");
         
         cacheManager.removeCache(SOURCE_TMDB);
+        
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdownNow();
+        }
+    }
+    
+    private File getDataDirectory() {
+        final String directory = configService.getProperty("themoviedb.data.directory");
+        if (StringUtils.isNotBlank(directory)) {
+            return new File(directory);
+        }
+        return new File(System.getProperty("yamj3.home", "."), "plugins" + File.separator + "data" + File.separator + "themoviedb");
     }
 
     public static TheMovieDbApiWrapper getTheMovieDbApiWrapper() {
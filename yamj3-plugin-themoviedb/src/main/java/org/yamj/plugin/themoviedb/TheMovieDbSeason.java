@@ -0,0 +1,87 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.themoviedb;
+
+import com.omertron.themoviedbapi.model.credits.MediaCreditCast;
+import com.omertron.themoviedbapi.model.tv.TVEpisodeInfo;
+import com.omertron.themoviedbapi.model.tv.TVSeasonInfo;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Parsed season of a series.
+ *
+ * The season payload already contains the episodes with guest stars and crew; the
+ * regular cast is appended once for the whole season. All episodes of a season share
+ * one instance.
+ */
+public final class TheMovieDbSeason implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TVSeasonInfo seasonInfo;
+    private final Map<Integer, TVEpisodeInfo> episodes;
+    private final List<MediaCreditCast> cast;
+
+    public TheMovieDbSeason(TVSeasonInfo seasonInfo) {
+        this.seasonInfo = seasonInfo;
+
+        if (seasonInfo.getEpisodes() == null) {
+            this.episodes = Collections.emptyMap();
+        } else {
+            this.episodes = new HashMap<>(seasonInfo.getEpisodes().size());
+            for (TVEpisodeInfo episodeInfo : seasonInfo.getEpisodes()) {
+                this.episodes.put(episodeInfo.getEpisodeNumber(), episodeInfo);
+            }
+        }
+
+        if (seasonInfo.getCredits() == null || seasonInfo.getCredits().getCast() == null) {
+            this.cast = Collections.emptyList();
+        } else {
+            this.cast = seasonInfo.getCredits().getCast();
+        }
+    }
+
+    public TVSeasonInfo getSeasonInfo() {
+        return seasonInfo;
+    }
+
+    /**
+     * Get an episode of the season.
+     *
+     * @param episode the episode number
+     * @return the episode info, or null if the season payload doesn't contain the episode
+     */
+    public TVEpisodeInfo getEpisode(int episode) {
+        return episodes.get(episode);
+    }
+
+    /**
+     * Get the regular cast of the season.
+     *
+     * @return the regular cast, never null
+     */
+    public List<MediaCreditCast> getCast() {
+        return cast;
+    }
+}
@@ -35,9 +35,11 @@ import com.omertron.themoviedbapi.model.tv.TVEpisodeInfo;
 import com.omertron.themoviedbapi.model.tv.TVInfo;
 import com.omertron.themoviedbapi.model.tv.TVSeasonInfo;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamj.plugin.api.metadata.SeriesScanner;
@@ -119,12 +121,25 @@ public final class TheMovieDbSeriesScanner extends AbstractTheMovieDbScanner imp
     }
     
     private void scanSeasons(ISeries series, TVInfo tvInfo, Locale locale) {
+        final boolean batchEpisodes = configService.getBooleanProperty("themoviedb.episode.batch", true);
+        
         for (ISeason season : series.getSeasons()) {
+            final String seriesId = season.getSeries().getId(SOURCE_TMDB);
+
+            // one season request serves the season and all of its episodes
+            TheMovieDbSeason tmdbSeason = null;
+            if (batchEpisodes && (!season.isDone() || hasOpenEpisodes(season))) {
+                tmdbSeason = theMovieDbApiWrapper.getSeason(seriesId, season.getNumber(), locale);
+            }
 
             // nothing to do if season already done
             if (!season.isDone()) {
-                final String seriesId = season.getSeries().getId(SOURCE_TMDB);
-                TVSeasonInfo seasonInfo = theMovieDbApiWrapper.getSeasonInfo(seriesId, season.getNumber(), locale);
+                TVSeasonInfo seasonInfo;
+                if (tmdbSeason == null) {
+                    seasonInfo = theMovieDbApiWrapper.getSeasonInfo(seriesId, season.getNumber(), locale);
+                } else {
+                    seasonInfo = tmdbSeason.getSeasonInfo();
+                }
                 
                 if (seasonInfo == null || seasonInfo.getId() <= 0) {
                     // mark season as not found
@@ -144,68 +159,57 @@ public final class TheMovieDbSeriesScanner extends AbstractTheMovieDbScanner imp
             }
             
             // scan episodes
-            scanEpisodes(season, locale);
+            scanEpisodes(season, tmdbSeason, locale);
+        }
+    }
+
+    private static boolean hasOpenEpisodes(ISeason season) {
+        for (IEpisode episode : season.getEpisodes()) {
+            if (!episode.isDone()) {
+                return true;
+            }
         }
+        return false;
     }
     
-    private void scanEpisodes(ISeason season, Locale locale) {
+    private void scanEpisodes(ISeason season, TheMovieDbSeason tmdbSeason, Locale locale) {
+        final String seriesId = season.getSeries().getId(SOURCE_TMDB);
+        final boolean seasonCast = configService.getBooleanProperty("themoviedb.episode.season.cast", false);
+        
         for (IEpisode episode : season.getEpisodes()) {
             if (episode.isDone()) {
                 // nothing to do anymore
                 continue;
             }
             
-            // get the episode
-            String seriesId = season.getSeries().getId(SOURCE_TMDB);
-            TVEpisodeInfo episodeInfo = theMovieDbApiWrapper.getEpisodeInfo(seriesId, season.getNumber(), episode.getNumber(), locale);
-            if (episodeInfo == null || episodeInfo.getId() <= 0) {
-                // mark episode as not found
-                episode.setNotFound();
-                continue;
-            }
-            
-            // fill in data
-            episode.addId(SOURCE_TMDB, String.valueOf(episodeInfo.getId()));
-
-            // set external IDs
-            if (episodeInfo.getExternalIDs() != null) {
-                episode.addId(SOURCE_IMDB, episodeInfo.getExternalIDs().getImdbId());
-                episode.addId(SOURCE_TVDB, episodeInfo.getExternalIDs().getTvdbId());
-                episode.addId(SOURCE_TVRAGE, episodeInfo.getExternalIDs().getTvrageId());
-            }
+            // get the episode from the season payload; the payload has no regular cast per
+            // episode, so it's only used if actors aren't scanned or the season cast is allowed
+            TVEpisodeInfo episodeInfo = tmdbSeason == null ? null : tmdbSeason.getEpisode(episode.getNumber());
+            if (episodeInfo != null && episodeInfo.getId() > 0 && (seasonCast || !configService.isCastScanEnabled(JobType.ACTOR))) {
+                fillEpisode(episode, episodeInfo);
 
-            episode.setTitle(episodeInfo.getName());
-            episode.setPlot(episodeInfo.getOverview());
-            episode.setOutline(episodeInfo.getOverview());
-            episode.setRelease(parseTMDbDate(episodeInfo.getAirDate()));
-            episode.setRating(parseRating(episodeInfo.getVoteAverage()));
-            
-            // CAST & CREW
-            MediaCreditList credits = episodeInfo.getCredits();
-            if (credits != null) {
-                if (CollectionUtils.isNotEmpty(credits.getCast()) && configService.isCastScanEnabled(JobType.ACTOR)) {
-                    for (MediaCreditCast person : credits.getCast()) {
-                        episode.addCredit(String.valueOf(person.getId()), JobType.ACTOR, person.getName(), person.getCharacter());
-                    }
+                // external IDs are not part of the season payload
+                if (StringUtils.isBlank(episode.getId(SOURCE_IMDB)) && configService.getBooleanProperty("themoviedb.episode.externalids", true)) {
+                    addExternalIDs(episode, theMovieDbApiWrapper.getEpisodeExternalIDs(seriesId, season.getNumber(), episode.getNumber()));
                 }
-            
-                // GUEST STARS
-                if (CollectionUtils.isNotEmpty(credits.getGuestStars()) && configService.isCastScanEnabled(JobType.GUEST_STAR)) {
-                    for (MediaCreditCast person : credits.getGuestStars()) {
-                        episode.addCredit(String.valueOf(person.getId()), JobType.GUEST_STAR, person.getName(), person.getCharacter());
-                    }
+
+                // regular cast is shared by the season; guest stars and crew are per episode
+                addCredits(episode, tmdbSeason.getCast(), episodeInfo.getGuestStars(), episodeInfo.getCrew());
+            } else {
+                // get the single episode
+                episodeInfo = theMovieDbApiWrapper.getEpisodeInfo(seriesId, season.getNumber(), episode.getNumber(), locale);
+                if (episodeInfo == null || episodeInfo.getId() <= 0) {
+                    // mark episode as not found
+                    episode.setNotFound();
+                    continue;
                 }
-            
-                // CREW
-                if (CollectionUtils.isNotEmpty(credits.getCrew())) {
-                    for (MediaCreditCrew person : credits.getCrew()) {
-                        final JobType jobType = retrieveJobType(person.getDepartment());
-                        if (!configService.isCastScanEnabled(jobType)) {
-                            // scan not enabled for that job
-                            continue;
-                        }
-                        episode.addCredit(String.valueOf(person.getId()), jobType, person.getName(), person.getJob());
-                    }
+
+                fillEpisode(episode, episodeInfo);
+                addExternalIDs(episode, episodeInfo);
+                
+                MediaCreditList credits = episodeInfo.getCredits();
+                if (credits != null) {
+                    addCredits(episode, credits.getCast(), credits.getGuestStars(), credits.getCrew());
                 }
             }
 
@@ -213,4 +217,49 @@ public final class TheMovieDbSeriesScanner extends AbstractTheMovieDbScanner imp
             episode.setDone();
         }
     }
+    
+    private static void fillEpisode(IEpisode episode, TVEpisodeInfo episodeInfo) {
+        episode.addId(SOURCE_TMDB, String.valueOf(episodeInfo.getId()));
+        episode.setTitle(episodeInfo.getName());
+        episode.setPlot(episodeInfo.getOverview());
+        episode.setOutline(episodeInfo.getOverview());
+        episode.setRelease(parseTMDbDate(episodeInfo.getAirDate()));
+        episode.setRating(parseRating(episodeInfo.getVoteAverage()));
+    }
+    
+    private static void addExternalIDs(IEpisode episode, TVEpisodeInfo episodeInfo) {
+        if (episodeInfo != null && episodeInfo.getExternalIDs() != null) {
+            episode.addId(SOURCE_IMDB, episodeInfo.getExternalIDs().getImdbId());
+            episode.addId(SOURCE_TVDB, episodeInfo.getExternalIDs().getTvdbId());
+            episode.addId(SOURCE_TVRAGE, episodeInfo.getExternalIDs().getTvrageId());
+        }
+    }
+    
+    private void addCredits(IEpisode episode, List<MediaCreditCast> cast, List<MediaCreditCast> guestStars, List<MediaCreditCrew> crew) {
+        // CAST
+        if (CollectionUtils.isNotEmpty(cast) && configService.isCastScanEnabled(JobType.ACTOR)) {
+            for (MediaCreditCast person : cast) {
+                episode.addCredit(String.valueOf(person.getId()), JobType.ACTOR, person.getName(), person.getCharacter());
+            }
+        }
+    
+        // GUEST STARS
+        if (CollectionUtils.isNotEmpty(guestStars) && configService.isCastScanEnabled(JobType.GUEST_STAR)) {
+            for (MediaCreditCast person : guestStars) {
+                episode.addCredit(String.valueOf(person.getId()), JobType.GUEST_STAR, person.getName(), person.getCharacter());
+            }
+        }
+    
+        // CREW
+        if (CollectionUtils.isNotEmpty(crew)) {
+            for (MediaCreditCrew person : crew) {
+                final JobType jobType = retrieveJobType(person.getDepartment());
+                if (!configService.isCastScanEnabled(jobType)) {
+                    // scan not enabled for that job
+                    continue;
+                }
+                episode.addCredit(String.valueOf(person.getId()), jobType, person.getName(), person.getJob());
+            }
+        }
+    }
 }
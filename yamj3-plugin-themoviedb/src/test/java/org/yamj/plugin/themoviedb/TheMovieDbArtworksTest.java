@@ -0,0 +1,75 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.themoviedb;
+
+import static org.junit.Assert.*;
+
+import com.omertron.themoviedbapi.enumeration.ArtworkType;
+import com.omertron.themoviedbapi.model.artwork.Artwork;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class TheMovieDbArtworksTest {
+
+    @Test
+    public void testGroupedFilePaths() {
+        List<Artwork> list = new ArrayList<>();
+        list.add(createArtwork(ArtworkType.POSTER, "de", "/p1.jpg"));
+        list.add(createArtwork(ArtworkType.POSTER, null, "/p2.jpg"));
+        list.add(createArtwork(ArtworkType.BACKDROP, "xx", "/b1.jpg"));
+        list.add(createArtwork(ArtworkType.POSTER, "en", "/p3.jpg"));
+        list.add(createArtwork(ArtworkType.POSTER, "DE", "/p4.jpg"));
+        list.add(createArtwork(ArtworkType.POSTER, "fr", null));
+
+        TheMovieDbArtworks artworks = new TheMovieDbArtworks(list);
+        assertEquals(5, artworks.size());
+        assertFalse(artworks.isEmpty());
+
+        // original order is kept within the merged buckets
+        assertEquals(Arrays.asList("/p1.jpg", "/p2.jpg", "/p4.jpg"), artworks.getFilePaths(ArtworkType.POSTER, "de", true));
+        assertEquals(Arrays.asList("/p3.jpg"), artworks.getFilePaths(ArtworkType.POSTER, "en", false));
+        assertEquals(Arrays.asList("/p2.jpg"), artworks.getFilePaths(ArtworkType.POSTER, "", true));
+        assertEquals(Arrays.asList("/b1.jpg"), artworks.getFilePaths(ArtworkType.BACKDROP, "fr", true));
+        assertTrue(artworks.getFilePaths(ArtworkType.BACKDROP, "fr", false).isEmpty());
+        assertTrue(artworks.getFilePaths(ArtworkType.STILL, "de", true).isEmpty());
+    }
+
+    @Test
+    public void testLanguageCodes() {
+        assertEquals(TheMovieDbArtworks.NO_LANGUAGE, TheMovieDbArtworks.toLanguageCode(null));
+        assertEquals(TheMovieDbArtworks.NO_LANGUAGE, TheMovieDbArtworks.toLanguageCode("xx"));
+        assertEquals(TheMovieDbArtworks.toLanguageCode("en"), TheMovieDbArtworks.toLanguageCode("EN"));
+        assertNotEquals(TheMovieDbArtworks.toLanguageCode("en"), TheMovieDbArtworks.toLanguageCode("de"));
+        assertNotEquals(TheMovieDbArtworks.NO_LANGUAGE, TheMovieDbArtworks.toLanguageCode("cmn"));
+    }
+
+    private static Artwork createArtwork(ArtworkType artworkType, String language, String filePath) {
+        Artwork artwork = new Artwork();
+        artwork.setArtworkType(artworkType);
+        artwork.setLanguage(language);
+        artwork.setFilePath(filePath);
+        return artwork;
+    }
+}
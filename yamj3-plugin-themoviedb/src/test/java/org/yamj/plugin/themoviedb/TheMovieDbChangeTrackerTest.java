@@ -0,0 +1,235 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ) plugins.
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3-plugins
+ *
+ */
+package org.yamj.plugin.themoviedb;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.yamj.api.common.http.CommonHttpClient;
+import org.yamj.api.common.http.HttpClientWrapper;
+import org.yamj.api.common.http.SimpleHttpClientBuilder;
+import org.yamj.plugin.themoviedb.TheMovieDbChangeTracker.ChangeType;
+
+public class TheMovieDbChangeTrackerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private String baseUrl;
+    private CommonHttpClient httpClient;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    @Before
+    @SuppressWarnings("resource")
+    public void setUp() throws IOException {
+        // local stub of the changes endpoints; movie changes are served in two pages
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/3/movie/changes", new ChangesHandler("[603]", "[13]"));
+        server.createContext("/3/tv/changes", new ChangesHandler("[1399]"));
+        server.createContext("/3/person/changes", new ChangesHandler("[287]"));
+        server.start();
+        
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/3/";
+        httpClient = new HttpClientWrapper(new SimpleHttpClientBuilder().build());
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testSync() {
+        TheMovieDbChangeTracker tracker = new TheMovieDbChangeTracker(httpClient, baseUrl, "key", new File(folder.getRoot(), "changes.idx"), 7);
+        final long now = System.currentTimeMillis();
+        assertFalse(tracker.isUnchanged(ChangeType.MOVIE, 550, now));
+
+        assertTrue(tracker.sync());
+        assertTrue(tracker.getLastSync() > 0);
+        assertFalse(tracker.isUnchanged(ChangeType.MOVIE, 603, now));
+        assertFalse(tracker.isUnchanged(ChangeType.MOVIE, 13, now));
+        assertTrue(tracker.isUnchanged(ChangeType.MOVIE, 550, now));
+        assertFalse(tracker.isUnchanged(ChangeType.TV, 1399, now));
+        assertTrue(tracker.isUnchanged(ChangeType.TV, 603, now));
+        assertFalse(tracker.isUnchanged(ChangeType.PERSON, 287, now));
+
+        // fetched before tracking started
+        assertFalse(tracker.isUnchanged(ChangeType.MOVIE, 550, now - 2 * 24 * 3600 * 1000L));
+    }
+
+    @Test
+    public void testFailedSyncKeepsState() {
+        TheMovieDbChangeTracker tracker = new TheMovieDbChangeTracker(httpClient, baseUrl, "key", new File(folder.getRoot(), "changes.idx"), 7);
+        assertTrue(tracker.sync());
+        final long lastSync = tracker.getLastSync();
+
+        failing.set(true);
+        assertFalse(tracker.sync());
+        assertEquals(lastSync, tracker.getLastSync());
+        assertFalse(tracker.isUnchanged(ChangeType.MOVIE, 603, System.currentTimeMillis()));
+        assertTrue(tracker.isUnchanged(ChangeType.MOVIE, 550, System.currentTimeMillis()));
+    }
+
+    @Test
+    public void testPersistence() {
+        File file = new File(folder.getRoot(), "changes.idx");
+        assertTrue(new TheMovieDbChangeTracker(httpClient, baseUrl, "key", file, 7).sync());
+        final int synced = requests.get();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            TheMovieDbChangeTracker loaded = new TheMovieDbChangeTracker(httpClient, baseUrl, "key", file, 7);
+            loaded.start(scheduler, 3600000);
+            assertTrue(loaded.isActive());
+            assertFalse(loaded.isUnchanged(ChangeType.MOVIE, 603, System.currentTimeMillis()));
+            assertTrue(loaded.isUnchanged(ChangeType.MOVIE, 550, System.currentTimeMillis()));
+            // no new sync before the refresh interval elapsed
+            assertEquals(synced, requests.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInfoStore() {
+        File file = new File(folder.getRoot(), "changes.idx");
+        TheMovieDbChangeTracker tracker = new TheMovieDbChangeTracker(httpClient, baseUrl, "key", file, 7);
+        TheMovieDbInfoStore infoStore = new TheMovieDbInfoStore(new File(folder.getRoot(), "info"), tracker);
+
+        // nothing is stored as long as the tracker is not started
+        infoStore.store(ChangeType.MOVIE, 550, "en", "Fight Club");
+        assertNull(infoStore.get(ChangeType.MOVIE, 550, "en", String.class));
+
+        assertTrue(tracker.sync());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            tracker.start(scheduler, 3600000);
+            infoStore.store(ChangeType.MOVIE, 550, "en", "Fight Club");
+            infoStore.store(ChangeType.MOVIE, 603, "en", "The Matrix");
+            infoStore.store(ChangeType.MOVIE, 550, "de", new ArrayList<String>());
+            assertEquals("Fight Club", infoStore.get(ChangeType.MOVIE, 550, "en", String.class));
+            assertNotNull(infoStore.get(ChangeType.MOVIE, 550, "de", ArrayList.class));
+            assertNull(infoStore.get(ChangeType.TV, 550, "en", String.class));
+            // changed today
+            assertNull(infoStore.get(ChangeType.MOVIE, 603, "en", String.class));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInfoStoreRenewAndPrune() throws IOException {
+        File file = new File(folder.getRoot(), "changes.idx");
+        TheMovieDbChangeTracker tracker = new TheMovieDbChangeTracker(httpClient, baseUrl, "key", file, 7);
+        File directory = new File(folder.getRoot(), "info");
+        TheMovieDbInfoStore infoStore = new TheMovieDbInfoStore(directory, tracker);
+
+        assertTrue(tracker.sync());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            tracker.start(scheduler, 3600000);
+            infoStore.store(ChangeType.MOVIE, 550, "en", "Fight Club");
+            infoStore.store(ChangeType.MOVIE, 603, "en", "The Matrix");
+            infoStore.store(ChangeType.MOVIE, 13, "en", "Forrest Gump");
+            File stored = new File(directory, "movie/50/550-en.info");
+            final long fetched = readFetched(stored);
+
+            // confirmed data gets the time of the last sync
+            assertTrue(tracker.sync());
+            assertTrue(tracker.getLastSync() > fetched);
+            assertEquals("Fight Club", infoStore.get(ChangeType.MOVIE, 550, "en", String.class));
+            assertEquals(tracker.getLastSync(), readFetched(stored));
+
+            // changed data is deleted on access or by pruning
+            assertNull(infoStore.get(ChangeType.MOVIE, 603, "en", String.class));
+            assertFalse(new File(directory, "movie/3/603-en.info").exists());
+            assertEquals(1, infoStore.prune());
+            assertFalse(new File(directory, "movie/13/13-en.info").exists());
+            assertTrue(stored.exists());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static long readFetched(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readInt();
+            return in.readLong();
+        }
+    }
+
+    private class ChangesHandler implements HttpHandler {
+
+        private final String[] pages;
+
+        public ChangesHandler(String... pages) {
+            this.pages = pages;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            final String query = exchange.getRequestURI().getQuery();
+            final int page = Integer.parseInt(query.substring(query.indexOf("page=") + 5));
+
+            final byte[] body;
+            if (failing.get()) {
+                body = new byte[0];
+                exchange.sendResponseHeaders(503, -1);
+            } else {
+                final String json = "{\"results\":" + toResults(pages[page - 1]) + ",\"page\":" + page + ",\"total_pages\":" + pages.length + "}";
+                body = json.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+            }
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        private String toResults(String ids) {
+            return ids.replaceAll("(\\d+)", "{\"id\":$1,\"adult\":false}");
+        }
+    }
+}
@@ -23,9 +23,12 @@
 package org.yamj.plugin.themoviedb;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.yamj.plugin.api.Constants.SOURCE_IMDB;
 import static org.yamj.plugin.api.Constants.SOURCE_TMDB;
 
 import java.util.List;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -145,4 +148,31 @@ public class TheMovieDbScannerTest {
         assertEquals(Boolean.TRUE, result);
         LOG.info("Credits: {}", episode.getCredits());
     }
+
+    @Test
+    public void testScanSeriesBatched() {
+        LOG.info("testScanSeriesBatched");
+        SeriesMock series = new SeriesMock();
+        series.addId(SOURCE_TMDB, "1399");
+        
+        SeasonMock season = new SeasonMock(1);
+        series.addSeason(season);
+        season.setSeries(series);
+        
+        EpisodeMock ep1 = new EpisodeMock(1);
+        ep1.setSeason(season);
+        season.addEpisode(ep1);
+        EpisodeMock ep2 = new EpisodeMock(2);
+        ep2.setSeason(season);
+        season.addEpisode(ep2);
+        
+        boolean result = seriesScanner.scanSeries(series, false);
+
+        assertEquals(Boolean.TRUE, result);
+        // both episodes keep their own credits and external IDs
+        assertFalse(ep1.getCredits().isEmpty());
+        assertFalse(ep2.getCredits().isEmpty());
+        assertFalse(StringUtils.isBlank(ep1.getId(SOURCE_IMDB)));
+        assertFalse(StringUtils.isBlank(ep2.getId(SOURCE_IMDB)));
+    }
 }